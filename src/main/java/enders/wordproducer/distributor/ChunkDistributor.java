@@ -0,0 +1,88 @@
+package enders.wordproducer.distributor;
+
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.producer.Chunk;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChunkDistributor
+{
+    private final List<Keyspace> keyspaces;
+    private final BigInteger chunkSize;
+    private final long chunkCount;
+
+    private int keyspaceIndex;
+    private BigInteger nextIndex;
+    private long nextNumber;
+
+    /**
+     * Constructor of ChunkDistributor class. Words of the given keyspaces are
+     * handed out on demand as chunks of consecutive indices, in keyspace order.
+     * A chunk never spans two keyspaces.
+     * @param keyspaces the keyspaces whose words are to be produced
+     * @param chunkSize the maximum number of words of a chunk
+     */
+    public ChunkDistributor(List<Keyspace> keyspaces, int chunkSize)
+    {
+        if (chunkSize <= 0)
+        {
+            throw new RuntimeException("Chunk size must be positive!");
+        }
+
+        this.keyspaces = new ArrayList<>();
+        this.chunkSize = BigInteger.valueOf(chunkSize);
+        BigInteger chunkCount = BigInteger.ZERO;
+        for (Keyspace keyspace: keyspaces)
+        {
+            BigInteger count = keyspace.getCount();
+            if (count.signum() > 0)
+            {
+                this.keyspaces.add(keyspace);
+                chunkCount = chunkCount.add(count.add(this.chunkSize).subtract(BigInteger.ONE)
+                        .divide(this.chunkSize));
+            }
+        }
+
+        if (chunkCount.bitLength() >= Long.SIZE)
+        {
+            throw new RuntimeException("Too many chunks!: chunk size must be increased");
+        }
+        this.chunkCount = chunkCount.longValue();
+        nextIndex = BigInteger.ZERO;
+    }
+
+    /**
+     * Hands out the next chunk.
+     * @return the next chunk, or null if all chunks have been handed out
+     */
+    public synchronized Chunk next()
+    {
+        if (keyspaceIndex >= keyspaces.size())
+        {
+            return null;
+        }
+
+        Keyspace keyspace = keyspaces.get(keyspaceIndex);
+        BigInteger endIndex = nextIndex.add(chunkSize).min(keyspace.getCount()).subtract(BigInteger.ONE);
+        Chunk chunk = new Chunk(nextNumber++, keyspace, nextIndex, endIndex);
+
+        nextIndex = endIndex.add(BigInteger.ONE);
+        if (nextIndex.equals(keyspace.getCount()))
+        {
+            keyspaceIndex++;
+            nextIndex = BigInteger.ZERO;
+        }
+        return chunk;
+    }
+
+    /**
+     * Accessor method for chunkCount.
+     * @return the total number of chunks
+     */
+    public long getChunkCount()
+    {
+        return chunkCount;
+    }
+}
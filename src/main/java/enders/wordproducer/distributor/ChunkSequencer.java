@@ -0,0 +1,140 @@
+package enders.wordproducer.distributor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+public class ChunkSequencer implements Runnable
+{
+    private final BlockingQueue<String> queue;
+    private final long chunkCount;
+    private final int window;
+    private final HashMap<Long, List<String>> completedChunks;
+    private long nextNumber;
+    private long failedNumber;
+
+    /**
+     * Constructor of ChunkSequencer class. Chunks completed in any order are kept in a
+     * reorder buffer and released into the queue in the order of their numbers.
+     * @param queue the queue where the words of the chunks are put in order
+     * @param chunkCount the total number of chunks
+     * @param window the maximum number of chunks that may be produced ahead of the next
+     *               chunk to be released, which bounds the size of the reorder buffer
+     */
+    public ChunkSequencer(BlockingQueue<String> queue, long chunkCount, int window)
+    {
+        if (window <= 0)
+        {
+            throw new RuntimeException("Window must be positive!");
+        }
+
+        this.queue = queue;
+        this.chunkCount = chunkCount;
+        this.window = window;
+        completedChunks = new HashMap<>();
+        failedNumber = Long.MAX_VALUE;
+    }
+
+    /**
+     * Blocks until the chunk with the given number is within the window,
+     * so that producers do not run arbitrarily far ahead of the released words.
+     * Throws RuntimeException if the chunk can never come within the window because
+     * an earlier chunk has failed.
+     * @param number the number of the chunk to be produced
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void awaitTurn(long number) throws InterruptedException
+    {
+        while (number >= nextNumber + window)
+        {
+            checkFailure();
+            wait();
+        }
+    }
+
+    /**
+     * Puts the words of the completed chunk into the reorder buffer.
+     * @param number the number of the completed chunk
+     * @param words the words of the completed chunk, in index order
+     */
+    public synchronized void complete(long number, List<String> words)
+    {
+        completedChunks.put(number, words);
+        notifyAll();
+    }
+
+    /**
+     * Marks the chunk with the given number as failed, so that it is never released.
+     * The sequencer releases the chunks before it and then stops, and producers waiting
+     * for their turn are woken up.
+     * @param number the number of the failed chunk
+     */
+    public synchronized void fail(long number)
+    {
+        failedNumber = Math.min(failedNumber, number);
+        notifyAll();
+    }
+
+    /**
+     * Throws RuntimeException if the next chunk to be released has failed.
+     */
+    private void checkFailure()
+    {
+        if (failedNumber <= nextNumber)
+        {
+            throw new RuntimeException(String.format("Chunk %d could not be produced!", failedNumber));
+        }
+    }
+
+    /**
+     * Takes the next chunk to be released from the reorder buffer, waiting for it if necessary.
+     * @return the words of the next chunk
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized List<String> takeNext() throws InterruptedException
+    {
+        while (!completedChunks.containsKey(nextNumber))
+        {
+            checkFailure();
+            wait();
+        }
+        return completedChunks.remove(nextNumber);
+    }
+
+    /**
+     * Marks the next chunk as released and lets waiting producers continue.
+     */
+    private synchronized void advance()
+    {
+        nextNumber++;
+        notifyAll();
+    }
+
+    /**
+     * Releases the words of all chunks into the queue in the order of chunk numbers.
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (nextNumber < chunkCount)
+            {
+                for (String word: takeNext())
+                {
+                    queue.put(word);
+                }
+                advance();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // interrupted by WordProducerManager.stop
+            fail(nextNumber);
+        }
+        catch (RuntimeException e)
+        {
+            e.printStackTrace();
+        }
+    }
+}
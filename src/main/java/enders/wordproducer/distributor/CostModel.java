@@ -0,0 +1,39 @@
+package enders.wordproducer.distributor;
+
+import enders.wordproducer.generator.Keyspace;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Estimates the cost of producing a word of a keyspace. WordDistributor splits
+ * the keyspaces so that the total estimated cost of each producer is equal.
+ */
+public interface CostModel
+{
+    /**
+     * Estimates every word by the number of bytes it takes when encoded as UTF-8.
+     */
+    CostModel BYTES = Keyspace::getAverageWordBytes;
+
+    /**
+     * Estimates every word equally, so that each producer produces the same number of words.
+     */
+    CostModel WORD_COUNT = keyspace -> 1;
+
+    /**
+     * Estimates the cost of producing a single word of the given keyspace.
+     * @param keyspace the keyspace whose words are to be produced
+     * @return the estimated cost of a single word, which must be positive
+     */
+    double getWordCost(Keyspace keyspace);
+
+    /**
+     * Creates a cost model that estimates words by their length.
+     * @param costFunction the function that returns the cost of a single word of the given length
+     * @return the created cost model
+     */
+    static CostModel perLength(IntToDoubleFunction costFunction)
+    {
+        return keyspace -> costFunction.applyAsDouble(keyspace.getLength());
+    }
+}
@@ -1,15 +1,17 @@
 package enders.wordproducer.distributor;
 
+import enders.wordproducer.generator.DeltaKeyspace;
+import enders.wordproducer.generator.Keyspace;
 import enders.wordproducer.manager.WordProducerManager;
 import enders.wordproducer.producer.ProducerAssignment;
 import enders.wordproducer.producer.WordProducer;
-import enders.wordproducer.util.IntervalManager;
 import enders.wordproducer.util.Counter;
+import enders.wordproducer.util.IntervalManager;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
 
 public class WordDistributor
 {
@@ -19,7 +21,12 @@ public class WordDistributor
     private int numberOfQueues;
     private int threadsPerQueue;
     private int threadCount;
-    private HashMap<Integer, List<String>> symbolMap;
+    private List<Keyspace> keyspaces;
+    private Supplier<BlockingQueue<String>> queueFactory;
+    private boolean blockOutput;
+    private CostModel costModel;
+
+    private static final double COST_SCALE = 1000;
 
     /**
      * Constructor of WordDistributor class
@@ -31,7 +38,17 @@ public class WordDistributor
         numberOfQueues = wordProducerManager.getNumberOfQueues();
         threadsPerQueue = wordProducerManager.getThreadsPerQueue();
         threadCount = threadsPerQueue * numberOfQueues;
-        symbolMap = wordProducerManager.getSymbolMap();
+        queueFactory = wordProducerManager.getQueueFactory();
+        blockOutput = wordProducerManager.isBlockOutput();
+        costModel = wordProducerManager.getCostModel();
+        keyspaces = new ArrayList<>();
+        for (Keyspace keyspace: wordProducerManager.getKeyspaces())
+        {
+            if (keyspace.getCount().signum() > 0)
+            {
+                keyspaces.add(keyspace);
+            }
+        }
 
         queues = new ArrayList<>();
         initializeWordProducers();
@@ -48,91 +65,88 @@ public class WordDistributor
 
         for (int i = 0; i < numberOfQueues; i++)
         {
-            BlockingQueue<String> queue = new ArrayBlockingQueue<>(1024);
+            BlockingQueue<String> queue = queueFactory.get();
             queues.add(queue);
             for (int j = 0; j < threadsPerQueue; j++)
             {
-                wordProducers.add(new WordProducer(queue));
+                wordProducers.add(new WordProducer(queue, blockOutput));
             }
         }
     }
 
     /**
-     * Distributes all words as tasks to different producers equally.
+     * Distributes all words as tasks to different producers so that the total estimated
+     * cost of each producer is equal. Producers take consecutive ranges of the keyspaces,
+     * and a producer may be left without any task if there are fewer words than producers.
      */
     public void distribute()
     {
-        BigInteger wordCount = Counter.countWords(symbolMap);
-        BigInteger wordsPerThread = wordCount.divide(BigInteger.valueOf(threadCount));
-
-        int[] lengths = Arrays.stream(symbolMap.keySet().toArray()).mapToInt(i -> (int) i).toArray();
-        int lengthCounter = 0;
-        int currentLength = lengths[lengthCounter];
-        BigInteger wordCountForCurrentLength = Counter.countWords(symbolMap, currentLength);
-        BigInteger selectedWordCountForCurrentLength = BigInteger.ZERO;
-
-        int threadCounter = 0;
-        BigInteger wordCountForThread = BigInteger.ZERO;
-        while (threadCounter < threadCount)
+        if (keyspaces.isEmpty())
         {
-            BigInteger remainingWordCountForCurrentLength = wordCountForCurrentLength
-                    .subtract(selectedWordCountForCurrentLength);
-            BigInteger remainingWordCountForCurrentThread = wordsPerThread.subtract(wordCountForThread);
-            if (remainingWordCountForCurrentLength.compareTo(remainingWordCountForCurrentThread) > 0)
+            return;
+        }
+
+        BigInteger[] wordCosts = new BigInteger[keyspaces.size()];
+        BigInteger[] costOffsets = new BigInteger[keyspaces.size()];
+        BigInteger totalCost = BigInteger.ZERO;
+        for (int i = 0; i < keyspaces.size(); i++)
+        {
+            double wordCost = costModel.getWordCost(keyspaces.get(i));
+            if (!(wordCost > 0) || Double.isInfinite(wordCost))
             {
-                assign(threadCounter, currentLength, selectedWordCountForCurrentLength,
-                        selectedWordCountForCurrentLength
-                                .add(remainingWordCountForCurrentThread).subtract(BigInteger.ONE));
-
-                selectedWordCountForCurrentLength = selectedWordCountForCurrentLength
-                        .add(remainingWordCountForCurrentThread);
-                wordCountForThread = BigInteger.ZERO;
-                threadCounter++;
+                throw new RuntimeException("Word cost must be positive and finite! Cost: " + wordCost);
             }
-            else
-            {
-                assign(threadCounter, currentLength, selectedWordCountForCurrentLength,
-                        selectedWordCountForCurrentLength.add(remainingWordCountForCurrentLength)
-                                .subtract(BigInteger.ONE));
-                wordCountForThread = wordCountForThread.add(remainingWordCountForCurrentLength);
-                selectedWordCountForCurrentLength = BigInteger.ZERO;
-                lengthCounter++;
-                if (lengthCounter >= lengths.length)
-                {
-                    wordCountForCurrentLength = BigInteger.ZERO;
-                    break;
-                }
 
-                if (wordCountForThread.equals(wordsPerThread))
+            wordCosts[i] = BigInteger.valueOf(Math.max(1, Math.round(wordCost * COST_SCALE)));
+            costOffsets[i] = totalCost;
+            totalCost = totalCost.add(keyspaces.get(i).getCount().multiply(wordCosts[i]));
+        }
+
+        BigInteger threads = BigInteger.valueOf(threadCount);
+        for (int i = 0; i < keyspaces.size(); i++)
+        {
+            Keyspace keyspace = keyspaces.get(i);
+            BigInteger lowerBound = BigInteger.ZERO;
+            for (int threadIndex = 0; threadIndex < threadCount; threadIndex++)
+            {
+                BigInteger nextLowerBound = threadIndex == threadCount - 1 ? keyspace.getCount()
+                        : firstIndexOfThread(threadIndex + 1, keyspace, wordCosts[i], costOffsets[i],
+                                totalCost, threads);
+                if (nextLowerBound.compareTo(lowerBound) > 0)
                 {
-                    threadCounter++;
-                    wordCountForThread = BigInteger.ZERO;
+                    assign(threadIndex, keyspace, lowerBound, nextLowerBound.subtract(BigInteger.ONE));
+                    lowerBound = nextLowerBound;
                 }
-
-                currentLength = lengths[lengthCounter];
-                wordCountForCurrentLength = Counter.countWords(symbolMap, currentLength);
             }
         }
+        validate();
+    }
 
-        threadCounter = 0;
-        BigInteger remainingWordCountForCurrentLength = wordCountForCurrentLength
-                .subtract(selectedWordCountForCurrentLength);
-
-        if (remainingWordCountForCurrentLength.compareTo(BigInteger.valueOf(threadCount)) >= 0)
+    /**
+     * Calculates the index of the first word of the given keyspace whose cost falls into the share
+     * of the given thread, i.e. the smallest index {@code i} satisfying
+     * {@code (costOffset + i * wordCost) * threadCount >= threadIndex * totalCost}.
+     * @param threadIndex the index of the thread
+     * @param keyspace the keyspace whose words are distributed
+     * @param wordCost the cost of a single word of the keyspace
+     * @param costOffset the total cost of the keyspaces before the keyspace
+     * @param totalCost the total cost of all keyspaces
+     * @param threadCount the number of threads
+     * @return the index of the first word of the thread, clamped to the bounds of the keyspace
+     */
+    private BigInteger firstIndexOfThread(int threadIndex, Keyspace keyspace, BigInteger wordCost,
+                                          BigInteger costOffset, BigInteger totalCost, BigInteger threadCount)
+    {
+        BigInteger numerator = BigInteger.valueOf(threadIndex).multiply(totalCost)
+                .subtract(costOffset.multiply(threadCount));
+        if (numerator.signum() <= 0)
         {
-            throw new RuntimeException("Unexpected condition!: Remaining word count " +
-                    "is greater than or equal to thread count");
+            return BigInteger.ZERO;
         }
 
-        while (selectedWordCountForCurrentLength.compareTo(wordCountForCurrentLength) < 0)
-        {
-            assign(threadCounter, currentLength, selectedWordCountForCurrentLength,
-                    selectedWordCountForCurrentLength);
-
-            selectedWordCountForCurrentLength = selectedWordCountForCurrentLength.add(BigInteger.ONE);
-            threadCounter++;
-        }
-        validate();
+        BigInteger denominator = wordCost.multiply(threadCount);
+        BigInteger index = numerator.add(denominator).subtract(BigInteger.ONE).divide(denominator);
+        return index.min(keyspace.getCount());
     }
 
     /**
@@ -141,29 +155,29 @@ public class WordDistributor
      */
     private void validate()
     {
-        HashMap<Integer, IntervalManager> coverageMap = new HashMap<>();
+        IdentityHashMap<Keyspace, IntervalManager> coverageMap = new IdentityHashMap<>();
+        for (Keyspace keyspace: keyspaces)
+        {
+            coverageMap.put(keyspace, new IntervalManager());
+        }
+
         for (WordProducer wordProducer: wordProducers)
         {
             for (ProducerAssignment producerAssignment: wordProducer.getAssignments())
             {
-                int length = producerAssignment.getLength();
+                Keyspace keyspace = producerAssignment.getKeyspace();
                 BigInteger startIndex = producerAssignment.getStartIndex();
                 BigInteger endIndex = producerAssignment.getEndIndex();
-                if (!coverageMap.containsKey(length))
-                {
-                    coverageMap.put(length, new IntervalManager());
-                }
-
-                coverageMap.get(length).addInterval(startIndex, endIndex);
+                coverageMap.get(keyspace).addInterval(startIndex, endIndex);
             }
         }
 
-        for (Map.Entry<Integer, IntervalManager> entry: coverageMap.entrySet())
+        for (Map.Entry<Keyspace, IntervalManager> entry: coverageMap.entrySet())
         {
-            Integer length = entry.getKey();
+            int length = entry.getKey().getLength();
             IntervalManager intervalManager = entry.getValue();
             BigInteger realCount = intervalManager.getCount();
-            BigInteger requiredCount = Counter.countWords(symbolMap, length);
+            BigInteger requiredCount = requiredCount(entry.getKey());
 
             if (!realCount.equals(requiredCount))
             {
@@ -173,19 +187,37 @@ public class WordDistributor
         }
     }
 
+    /**
+     * Returns the number of words the assignments of the given keyspace must cover.
+     * The count of a delta keyspace is calculated by {@code Counter.countDeltaWords}
+     * rather than taken from its partitions, so that an incomplete partition is detected.
+     * @param keyspace the keyspace whose words are distributed
+     * @return the number of words of the keyspace
+     */
+    private BigInteger requiredCount(Keyspace keyspace)
+    {
+        if (keyspace instanceof DeltaKeyspace)
+        {
+            DeltaKeyspace deltaKeyspace = (DeltaKeyspace) keyspace;
+            return Counter.countDeltaWords(deltaKeyspace.getPreviousSymbols(), deltaKeyspace.getSymbols(),
+                    deltaKeyspace.getLength());
+        }
+        return keyspace.getCount();
+    }
+
     /**
      * Assigns the given task to the thread (word producer) whose index is specified.
      * @param threadIndex the index of the thread (word producer) to which the given task is assigned
-     * @param length length of the words to be produced
+     * @param keyspace the keyspace whose words are to be produced
      * @param lowerBound lower bound of the
      *                   word interval (the interval that defines the task along with length)
      * @param upperBound upper bound of the
      *                   word interval (the interval that defines the task along with length)
      */
-    private void assign(int threadIndex, int length, BigInteger lowerBound, BigInteger upperBound)
+    private void assign(int threadIndex, Keyspace keyspace, BigInteger lowerBound, BigInteger upperBound)
     {
         wordProducers.get(threadIndex).addAssignment(
-                new ProducerAssignment(symbolMap.get(length), length, lowerBound, upperBound));
+                new ProducerAssignment(keyspace, lowerBound, upperBound));
     }
 
     /**
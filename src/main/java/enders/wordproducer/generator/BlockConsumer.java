@@ -0,0 +1,15 @@
+package enders.wordproducer.generator;
+
+public interface BlockConsumer
+{
+    /**
+     * Consumes a block of contiguous words, each of which is followed by a line feed.
+     * The block is only valid during the call since its array is reused for the next block.
+     * @param block the array that holds the words
+     * @param offset the position of the first character of the first word in the array
+     * @param length the number of characters of the block, including the line feeds
+     * @param wordCount the number of words found in the block
+     * @return whether more blocks are to be produced
+     */
+    boolean accept(char[] block, int offset, int length, int wordCount);
+}
@@ -0,0 +1,242 @@
+package enders.wordproducer.generator;
+
+import enders.wordproducer.util.NumberSystem;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+
+public class BlockTemplateGenerator extends NumberSystemGenerator
+{
+    private static final int DEFAULT_MAX_BLOCK_WORD_COUNT = 4096;
+
+    private final int suffixPositions;
+    private final int blockWordCount;
+    private final char[][] symbolChars;
+    private final char[][] suffixes;
+    private final HashMap<Integer, Template> templates;
+
+    private static final class Template
+    {
+        private final char[] block;
+        private final int[] slotOffsets;
+
+        /**
+         * Lays out all suffixes one after another, each preceded by a slot of
+         * {@code <prefixLength>} characters for the prefix and followed by a line feed.
+         * @param suffixes the characters of all suffixes, in index order
+         * @param prefixLength the number of characters of the prefixes stamped into the template
+         */
+        private Template(char[][] suffixes, int prefixLength)
+        {
+            slotOffsets = new int[suffixes.length + 1];
+            for (int i = 0; i < suffixes.length; i++)
+            {
+                slotOffsets[i + 1] = slotOffsets[i] + prefixLength + suffixes[i].length + 1;
+            }
+
+            block = new char[slotOffsets[suffixes.length]];
+            for (int i = 0; i < suffixes.length; i++)
+            {
+                int suffixOffset = slotOffsets[i] + prefixLength;
+                System.arraycopy(suffixes[i], 0, block, suffixOffset, suffixes[i].length);
+                block[suffixOffset + suffixes[i].length] = '\n';
+            }
+        }
+    }
+
+    /**
+     * Constructor of BlockTemplateGenerator class. The number of suffix positions is chosen
+     * so that a block holds at most 4096 words, but it is at least 1.
+     * @param generationPool a List of Strings that defines the symbols used for word generation.
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     * @param digitCount the number of symbols to be used in produced words.
+     */
+    public BlockTemplateGenerator(List<String> generationPool,
+                                  BigInteger lowerBound, BigInteger upperBound,
+                                  int digitCount)
+    {
+        this(generationPool, lowerBound, upperBound, digitCount,
+                chooseSuffixPositions(generationPool.size(), digitCount));
+    }
+
+    /**
+     * Constructor of BlockTemplateGenerator class
+     * @param generationPool a List of Strings that defines the symbols used for word generation.
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     * @param digitCount the number of symbols to be used in produced words.
+     * @param suffixPositions the number of innermost positions whose combinations
+     *                        are precomputed as a block template
+     */
+    public BlockTemplateGenerator(List<String> generationPool,
+                                  BigInteger lowerBound, BigInteger upperBound,
+                                  int digitCount, int suffixPositions)
+    {
+        super(generationPool, lowerBound, upperBound, digitCount);
+        if (suffixPositions <= 0 || suffixPositions > digitCount)
+        {
+            throw new RuntimeException(String.format("Number of suffix positions must be between 1 and %d!",
+                    digitCount));
+        }
+
+        BigInteger blockWordCount = BigInteger.valueOf(base).pow(suffixPositions);
+        if (blockWordCount.bitLength() >= Integer.SIZE)
+        {
+            throw new RuntimeException("Block is too large!: number of suffix positions must be decreased");
+        }
+        this.suffixPositions = suffixPositions;
+        this.blockWordCount = blockWordCount.intValue();
+
+        symbolChars = new char[base][];
+        for (int i = 0; i < base; i++)
+        {
+            symbolChars[i] = generationPool.get(i).toCharArray();
+        }
+        suffixes = createSuffixes();
+        templates = new HashMap<>();
+    }
+
+    /**
+     * Chooses the largest number of suffix positions whose block holds
+     * at most {@code DEFAULT_MAX_BLOCK_WORD_COUNT} words, but at least 1.
+     * @param base the number of symbols
+     * @param digitCount the number of symbols found in each word
+     * @return the number of suffix positions
+     */
+    private static int chooseSuffixPositions(int base, int digitCount)
+    {
+        int suffixPositions = 1;
+        long blockWordCount = base;
+        while (suffixPositions < digitCount && blockWordCount * base <= DEFAULT_MAX_BLOCK_WORD_COUNT)
+        {
+            blockWordCount *= base;
+            suffixPositions++;
+        }
+        return suffixPositions;
+    }
+
+    /**
+     * Creates the characters of all combinations of the innermost positions, in index order.
+     * @return an array consisting of the characters of each suffix
+     */
+    private char[][] createSuffixes()
+    {
+        char[][] result = new char[blockWordCount][];
+        int[] digits = new int[suffixPositions];
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < blockWordCount; i++)
+        {
+            stringBuilder.setLength(0);
+            for (int digit: digits)
+            {
+                stringBuilder.append(symbolChars[digit]);
+            }
+            result[i] = stringBuilder.toString().toCharArray();
+            increment(digits);
+        }
+        return result;
+    }
+
+    /**
+     * Increments the given base-n number by one, the last digit being the least significant.
+     * @param digits the digits of the number
+     */
+    private void increment(int[] digits)
+    {
+        for (int i = digits.length - 1; i >= 0; i--)
+        {
+            if (++digits[i] < base)
+            {
+                return;
+            }
+            digits[i] = 0;
+        }
+    }
+
+    /**
+     * Produces all words of the generator as contiguous blocks of line-feed terminated words.
+     * A block holds the words sharing a prefix, so the template of all suffixes is built once
+     * and each prefix is stamped into its slots by bulk array copies. A block is partial only
+     * at the bounds of the generator. Production stops early if the consumer returns false.
+     * @param consumer the consumer of the blocks
+     */
+    public void forEachBlock(BlockConsumer consumer)
+    {
+        if (lowerBound.compareTo(upperBound) > 0)
+        {
+            return;
+        }
+
+        BigInteger bigBlockWordCount = BigInteger.valueOf(blockWordCount);
+        BigInteger[] first = lowerBound.divideAndRemainder(bigBlockWordCount);
+        BigInteger[] last = upperBound.divideAndRemainder(bigBlockWordCount);
+
+        int[] prefixDigits = new int[digitCount - suffixPositions];
+        Integer[] firstPrefixDigits = NumberSystem.decimalToBaseN(first[0], base, prefixDigits.length);
+        for (int i = 0; i < prefixDigits.length; i++)
+        {
+            prefixDigits[i] = firstPrefixDigits[i];
+        }
+
+        char[] prefix = new char[16];
+        BigInteger blockIndex = first[0];
+        int startSlot = first[1].intValue();
+        while (true)
+        {
+            boolean lastBlock = blockIndex.equals(last[0]);
+            int endSlot = lastBlock ? last[1].intValue() : blockWordCount - 1;
+
+            int prefixLength = 0;
+            for (int digit: prefixDigits)
+            {
+                char[] symbol = symbolChars[digit];
+                if (prefixLength + symbol.length > prefix.length)
+                {
+                    char[] grown = new char[Math.max(prefix.length * 2, prefixLength + symbol.length)];
+                    System.arraycopy(prefix, 0, grown, 0, prefixLength);
+                    prefix = grown;
+                }
+                System.arraycopy(symbol, 0, prefix, prefixLength, symbol.length);
+                prefixLength += symbol.length;
+            }
+
+            Template template = templates.get(prefixLength);
+            if (template == null)
+            {
+                template = new Template(suffixes, prefixLength);
+                templates.put(prefixLength, template);
+            }
+
+            for (int slot = startSlot; slot <= endSlot; slot++)
+            {
+                System.arraycopy(prefix, 0, template.block, template.slotOffsets[slot], prefixLength);
+            }
+            boolean more = consumer.accept(template.block, template.slotOffsets[startSlot],
+                    template.slotOffsets[endSlot + 1] - template.slotOffsets[startSlot],
+                    endSlot - startSlot + 1);
+
+            if (lastBlock || !more)
+            {
+                break;
+            }
+            increment(prefixDigits);
+            blockIndex = blockIndex.add(BigInteger.ONE);
+            startSlot = 0;
+        }
+    }
+
+    /**
+     * Accessor method for blockWordCount.
+     * @return the number of words of a full block
+     */
+    public int getBlockWordCount()
+    {
+        return blockWordCount;
+    }
+}
@@ -0,0 +1,96 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class CombinatorGenerator extends DistributableGenerator
+{
+    private final List<List<String>> parts;
+
+    /**
+     * Constructor of CombinatorGenerator class.
+     * Words are the concatenations of one entry of each part, and the index of a word
+     * is the mixed-radix number whose digits are the indices of its entries,
+     * the entry of the last part being the least significant digit.
+     * @param parts the list of word or symbol lists that fill the positions, in order.
+     *              Since each position has its own list, the generation pool of the generator is empty.
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     */
+    public CombinatorGenerator(List<List<String>> parts, BigInteger lowerBound, BigInteger upperBound)
+    {
+        super(Collections.<String>emptyList(), lowerBound, upperBound, parts.size());
+        this.parts = parts;
+    }
+
+    protected class CombinatorGeneratorIterator extends DistributableGeneratorIterator
+    {
+        private final int[] digits;
+
+        public CombinatorGeneratorIterator()
+        {
+            digits = toDigits(currentIndex);
+        }
+
+        @Override
+        public String next()
+        {
+            StringBuilder stringBuilder = new StringBuilder();
+            for (int i = 0; i < digitCount; i++)
+            {
+                stringBuilder.append(parts.get(i).get(digits[i]));
+            }
+
+            for (int i = digitCount - 1; i >= 0; i--)
+            {
+                digits[i]++;
+                if (digits[i] < parts.get(i).size())
+                {
+                    break;
+                }
+                digits[i] = 0;
+            }
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Converts the given index to the indices of the entries of each part.
+     * @param index the index that refers to a word
+     * @return an array consisting of the entry indices, one for each part
+     */
+    private int[] toDigits(BigInteger index)
+    {
+        int[] digits = new int[digitCount];
+        for (int i = digitCount - 1; i >= 0; i--)
+        {
+            BigInteger[] quotientAndRemainder = index.divideAndRemainder(BigInteger.valueOf(parts.get(i).size()));
+            digits[i] = quotientAndRemainder[1].intValue();
+            index = quotientAndRemainder[0];
+        }
+        return digits;
+    }
+
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        StringBuilder stringBuilder = new StringBuilder();
+        int[] digits = toDigits(index);
+        for (int i = 0; i < digitCount; i++)
+        {
+            stringBuilder.append(parts.get(i).get(digits[i]));
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new CombinatorGeneratorIterator();
+    }
+}
@@ -0,0 +1,137 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CombinatorKeyspace extends Keyspace
+{
+    private final List<List<String>> parts;
+
+    /**
+     * Constructor of CombinatorKeyspace class
+     * @param builder the Builder that builds CombinatorKeyspace
+     */
+    private CombinatorKeyspace(Builder builder)
+    {
+        this.parts = Collections.unmodifiableList(new ArrayList<>(builder.parts));
+    }
+
+    public static final class Builder
+    {
+        private final List<List<String>> parts;
+
+        /**
+         * Constructor of Builder of CombinatorKeyspace
+         */
+        public Builder()
+        {
+            parts = new ArrayList<>();
+        }
+
+        /**
+         * Appends a position filled by the words of the given wordlist.
+         * A {@code MappedWordlist} should be used for large dictionary files
+         * so that they are not loaded into memory.
+         * @param wordlist the words that fill the position
+         * @return the Builder
+         */
+        public Builder addWordlist(List<String> wordlist)
+        {
+            if (wordlist.size() == 0)
+            {
+                throw new RuntimeException("Wordlist cannot be empty!");
+            }
+            parts.add(wordlist);
+            return this;
+        }
+
+        /**
+         * Appends {@code <positions>} positions each filled by the symbols of the given symbol list.
+         * @param symbols the symbols that fill the positions
+         * @param positions the number of positions to be appended
+         * @return the Builder
+         */
+        public Builder addSymbols(List<String> symbols, int positions)
+        {
+            if (symbols.size() == 0)
+            {
+                throw new RuntimeException("Symbols list cannot be empty!");
+            }
+
+            if (positions <= 0)
+            {
+                throw new RuntimeException("Number of positions must be positive!");
+            }
+
+            for (int i = 0; i < positions; i++)
+            {
+                parts.add(symbols);
+            }
+            return this;
+        }
+
+        /**
+         * Returns the CombinatorKeyspace built by using the parts
+         * that have been added so far.
+         * @return the built CombinatorKeyspace
+         */
+        public CombinatorKeyspace build()
+        {
+            if (parts.size() == 0)
+            {
+                throw new RuntimeException("No wordlist or symbol has been added so far!");
+            }
+            return new CombinatorKeyspace(this);
+        }
+    }
+
+    /**
+     * Accessor method for parts.
+     * @return the list of word or symbol lists that fill the positions, in order
+     */
+    public List<List<String>> getParts()
+    {
+        return parts;
+    }
+
+    /**
+     * Returns the number of positions, each of which is filled
+     * by a word of a wordlist or by a symbol.
+     * @return the number of positions
+     */
+    @Override
+    public int getLength()
+    {
+        return parts.size();
+    }
+
+    @Override
+    public double getAverageWordBytes()
+    {
+        double averageWordBytes = 0;
+        for (List<String> part: parts)
+        {
+            averageWordBytes += averageBytes(part);
+        }
+        return averageWordBytes;
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        BigInteger result = BigInteger.ONE;
+        for (List<String> part: parts)
+        {
+            result = result.multiply(BigInteger.valueOf(part.size()));
+        }
+        return result;
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new CombinatorGenerator(parts, lowerBound, upperBound);
+    }
+}
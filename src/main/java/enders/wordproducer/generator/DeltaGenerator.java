@@ -0,0 +1,46 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+
+public class DeltaGenerator extends DistributableGenerator
+{
+    private final DeltaKeyspace keyspace;
+
+    /**
+     * Constructor of DeltaGenerator class
+     * @param keyspace the keyspace of the words containing at least one new symbol
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     */
+    public DeltaGenerator(DeltaKeyspace keyspace, BigInteger lowerBound, BigInteger upperBound)
+    {
+        super(keyspace.getSymbols(), lowerBound, upperBound, keyspace.getLength());
+        this.keyspace = keyspace;
+    }
+
+    protected class DeltaGeneratorIterator extends DistributableGeneratorIterator
+    {
+        @Override
+        public String next()
+        {
+            String result = generateWord(currentIndex);
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return result;
+        }
+    }
+
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        return keyspace.wordAt(index);
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new DeltaGeneratorIterator();
+    }
+}
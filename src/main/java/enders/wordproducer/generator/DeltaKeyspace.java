@@ -0,0 +1,168 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class DeltaKeyspace extends Keyspace
+{
+    private final List<String> symbols;
+    private final List<String> previousSymbols;
+    private final List<String> newSymbols;
+    private final int length;
+    private final BigInteger[] partitionOffsets;
+
+    /**
+     * Constructor of DeltaKeyspace class. The keyspace covers only the words of length
+     * {@code <length>} over {@code <symbols>} that were not covered by a previous run over
+     * {@code <previousSymbols>}, i.e. the words containing at least one symbol that is not
+     * found in {@code <previousSymbols>}.
+     * <p>
+     * Words are partitioned by the position of their first new symbol: for position {@code j},
+     * the positions before it hold previous symbols, position {@code j} holds a new symbol and
+     * the positions after it hold any symbol. The distribution of the keyspace is validated
+     * against the count given by {@code Counter.countDeltaWords}, which is calculated
+     * independently of the partitions.
+     * @param previousSymbols the symbol list of the previous run for the same length,
+     *                        or an empty list if the length was not part of the previous run
+     * @param symbols the extended symbol list
+     * @param length the number of symbols found in each word
+     */
+    public DeltaKeyspace(List<String> previousSymbols, List<String> symbols, int length)
+    {
+        if (length <= 0)
+        {
+            throw new RuntimeException("Length must be positive!");
+        }
+
+        HashSet<String> previousSymbolSet = new HashSet<>(previousSymbols);
+        List<String> keptSymbols = new ArrayList<>();
+        List<String> newSymbols = new ArrayList<>();
+        for (String symbol: symbols)
+        {
+            if (previousSymbolSet.contains(symbol))
+            {
+                keptSymbols.add(symbol);
+            }
+            else
+            {
+                newSymbols.add(symbol);
+            }
+        }
+
+        this.symbols = symbols;
+        this.previousSymbols = Collections.unmodifiableList(keptSymbols);
+        this.newSymbols = Collections.unmodifiableList(newSymbols);
+        this.length = length;
+
+        BigInteger keptCount = BigInteger.valueOf(keptSymbols.size());
+        BigInteger newCount = BigInteger.valueOf(newSymbols.size());
+        BigInteger allCount = BigInteger.valueOf(symbols.size());
+        partitionOffsets = new BigInteger[length + 1];
+        partitionOffsets[0] = BigInteger.ZERO;
+        for (int position = 0; position < length; position++)
+        {
+            BigInteger partitionCount = keptCount.pow(position).multiply(newCount)
+                    .multiply(allCount.pow(length - 1 - position));
+            partitionOffsets[position + 1] = partitionOffsets[position].add(partitionCount);
+        }
+    }
+
+    /**
+     * Accessor method for newSymbols.
+     * @return the symbols that are not found in the previous symbol list
+     */
+    public List<String> getNewSymbols()
+    {
+        return newSymbols;
+    }
+
+    /**
+     * Accessor method for previousSymbols.
+     * @return the symbols of the previous run that are kept in the extended symbol list
+     */
+    public List<String> getPreviousSymbols()
+    {
+        return previousSymbols;
+    }
+
+    /**
+     * Accessor method for symbols.
+     * @return the extended symbol list
+     */
+    @Override
+    public List<String> getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Generates the word mapped by the given index.
+     * @param index the index that refers to the target word
+     * @return the word referred to by the given index
+     */
+    String wordAt(BigInteger index)
+    {
+        if (index.signum() < 0 || index.compareTo(getCount()) >= 0)
+        {
+            throw new RuntimeException(String.format("Index is out of the keyspace!: %d", index));
+        }
+
+        int firstNewPosition = 0;
+        while (partitionOffsets[firstNewPosition + 1].compareTo(index) <= 0)
+        {
+            firstNewPosition++;
+        }
+
+        BigInteger remainder = index.subtract(partitionOffsets[firstNewPosition]);
+        String[] word = new String[length];
+        for (int position = length - 1; position >= 0; position--)
+        {
+            List<String> positionSymbols;
+            if (position < firstNewPosition)
+            {
+                positionSymbols = previousSymbols;
+            }
+            else if (position == firstNewPosition)
+            {
+                positionSymbols = newSymbols;
+            }
+            else
+            {
+                positionSymbols = symbols;
+            }
+
+            BigInteger[] quotientAndRemainder = remainder.divideAndRemainder(
+                    BigInteger.valueOf(positionSymbols.size()));
+            word[position] = positionSymbols.get(quotientAndRemainder[1].intValue());
+            remainder = quotientAndRemainder[0];
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        for (String symbol: word)
+        {
+            stringBuilder.append(symbol);
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public int getLength()
+    {
+        return length;
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return partitionOffsets[length];
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new DeltaGenerator(this, lowerBound, upperBound);
+    }
+}
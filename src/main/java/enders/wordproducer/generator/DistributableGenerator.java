@@ -51,4 +51,21 @@ public abstract class DistributableGenerator extends Generator implements Iterab
      */
     protected abstract String generateWord(BigInteger index);
 
+    /**
+     * Generates the word at the given position of the generator, independently of iteration.
+     * Position 0 refers to the word mapped by lowerBound.
+     * @param position the position of the target word, between 0 and
+     *                 {@code upperBound - lowerBound} (both inclusive)
+     * @return the word at the given position
+     */
+    public String wordAt(BigInteger position)
+    {
+        BigInteger index = lowerBound.add(position);
+        if (position.signum() < 0 || index.compareTo(upperBound) > 0)
+        {
+            throw new RuntimeException(String.format("Position is out of the generator!: %d", position));
+        }
+        return generateWord(index);
+    }
+
 }
@@ -0,0 +1,76 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public abstract class Keyspace
+{
+    /**
+     * Accessor method for length.
+     * @return the number of symbols found in each word of the keyspace.
+     *         Note that a symbol consisting of multiple letters still contributes 1 to the length.
+     */
+    public abstract int getLength();
+
+    /**
+     * Calculates and returns the count of all words found in the keyspace.
+     * Words of the keyspace are mapped by indices between 0 and count - 1 (both inclusive).
+     * @return the count of all words found in the keyspace
+     */
+    public abstract BigInteger getCount();
+
+    /**
+     * Creates a generator that produces the words of the keyspace mapped by
+     * indices between {@code <lowerBound>} and {@code <upperBound>} (both inclusive).
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     * @return the created generator
+     */
+    public abstract DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound);
+
+    /**
+     * Estimates the average number of bytes of a word of the keyspace when encoded as UTF-8.
+     * By default, every symbol is assumed to take the average byte size of the symbols returned
+     * by {@link #getSymbols()}, or a single byte if the keyspace has no symbol list.
+     * @return the estimated average number of bytes of a word
+     */
+    public double getAverageWordBytes()
+    {
+        List<String> symbols = getSymbols();
+        return symbols == null ? getLength() : getLength() * averageBytes(symbols);
+    }
+
+    /**
+     * Returns the symbols every word of the keyspace is made of.
+     * By default, the keyspace has no symbol list.
+     * @return the list of symbols, or null if the keyspace has no symbol list
+     */
+    protected List<String> getSymbols()
+    {
+        return null;
+    }
+
+    /**
+     * Calculates the average number of bytes of the given strings when encoded as UTF-8.
+     * Long lists are sampled at evenly spaced positions.
+     * @param strings the strings whose average byte size is calculated
+     * @return the average number of bytes of the given strings, or 0 if the list is empty
+     */
+    protected static double averageBytes(List<String> strings)
+    {
+        if (strings.isEmpty())
+        {
+            return 0;
+        }
+
+        int sampleCount = Math.min(strings.size(), 1024);
+        long byteCount = 0;
+        for (int i = 0; i < sampleCount; i++)
+        {
+            String string = strings.get((int) ((long) i * strings.size() / sampleCount));
+            byteCount += string.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return (double) byteCount / sampleCount;
+    }
+}
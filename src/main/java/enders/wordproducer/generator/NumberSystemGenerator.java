@@ -8,7 +8,7 @@ import java.util.List;
 
 public class NumberSystemGenerator extends DistributableGenerator
 {
-    private final int base;
+    protected final int base;
 
     /**
      * Constructor of NumberSystemGenerator class
@@ -0,0 +1,96 @@
+package enders.wordproducer.generator;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public class SymbolKeyspace extends Keyspace
+{
+    private final List<String> symbols;
+    private final int length;
+    private final BigInteger startIndex;
+    private final BigInteger endIndex;
+
+    /**
+     * Constructor of SymbolKeyspace class that covers all the words of length
+     * {@code <length>} that may be generated using the given symbol list.
+     * @param symbols the symbol list to be used for producing words
+     * @param length the number of symbols found in each word
+     */
+    public SymbolKeyspace(List<String> symbols, int length)
+    {
+        this(symbols, length, BigInteger.ZERO,
+                BigInteger.valueOf(symbols.size()).pow(length).subtract(BigInteger.ONE));
+    }
+
+    /**
+     * Constructor of SymbolKeyspace class that covers only the words mapped by indices
+     * between {@code <startIndex>} and {@code <endIndex>} (both inclusive).
+     * Index 0 of the keyspace refers to the word mapped by {@code <startIndex>}.
+     * @param symbols the symbol list to be used for producing words
+     * @param length the number of symbols found in each word
+     * @param startIndex the lower bound index (inclusive) of the covered words
+     * @param endIndex the upper bound index (inclusive) of the covered words
+     */
+    public SymbolKeyspace(List<String> symbols, int length, BigInteger startIndex, BigInteger endIndex)
+    {
+        if (startIndex.signum() < 0 ||
+                endIndex.compareTo(BigInteger.valueOf(symbols.size()).pow(length)) >= 0)
+        {
+            throw new RuntimeException(String.format("Invalid keyspace range!: [%d, %d]", startIndex, endIndex));
+        }
+        this.symbols = symbols;
+        this.length = length;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    /**
+     * Accessor method for symbols.
+     * @return the list of symbols to be used for producing words
+     */
+    @Override
+    public List<String> getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Accessor method for startIndex.
+     * @return the lower bound index (inclusive) of the covered words
+     */
+    public BigInteger getStartIndex()
+    {
+        return startIndex;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return length;
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return endIndex.subtract(startIndex).add(BigInteger.ONE).max(BigInteger.ZERO);
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new NumberSystemGenerator(symbols, startIndex.add(lowerBound), startIndex.add(upperBound), length);
+    }
+
+    /**
+     * Creates a generator that also produces the words mapped by indices between
+     * {@code <lowerBound>} and {@code <upperBound>} (both inclusive) as contiguous blocks,
+     * for consumers such as file writers and hashers that can take blocks of words.
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     * @return the created generator
+     */
+    public BlockTemplateGenerator createBlockGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new BlockTemplateGenerator(symbols, startIndex.add(lowerBound), startIndex.add(upperBound), length);
+    }
+}
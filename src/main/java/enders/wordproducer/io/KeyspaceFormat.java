@@ -0,0 +1,38 @@
+package enders.wordproducer.io;
+
+/**
+ * Constants of the binary keyspace file format.
+ * <p>
+ * A keyspace file starts with the magic number and the version, followed by sections until
+ * the end of the file. Every section starts with its type, the word length and the symbol
+ * table (symbol count, then the byte length and the UTF-8 bytes of each symbol).
+ * <ul>
+ *     <li>A range section continues with the start and end indices (both inclusive) of the
+ *     words it covers, each stored as the byte length and the bytes of a BigInteger.</li>
+ *     <li>A packed section continues with the word count, the number of bits per symbol and
+ *     the symbol indices of all words packed into that many bits, most significant bit first.</li>
+ * </ul>
+ * All numbers are big-endian.
+ */
+final class KeyspaceFormat
+{
+    static final int MAGIC = 0x57504B53;
+    static final int VERSION = 1;
+
+    static final byte SECTION_RANGE = 0;
+    static final byte SECTION_PACKED = 1;
+
+    private KeyspaceFormat()
+    {
+    }
+
+    /**
+     * Calculates the number of bits needed to store a symbol index of the given base.
+     * @param base the number of symbols in the symbol table
+     * @return the number of bits needed to store a symbol index
+     */
+    static int bitsPerSymbol(int base)
+    {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(base - 1);
+    }
+}
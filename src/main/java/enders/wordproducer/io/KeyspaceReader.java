@@ -0,0 +1,189 @@
+package enders.wordproducer.io;
+
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.generator.SymbolKeyspace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class KeyspaceReader implements Closeable, Iterable<String>
+{
+    private final MappedFile file;
+    private final List<Keyspace> keyspaces;
+    private long position;
+
+    /**
+     * Constructor of KeyspaceReader class.
+     * The file is memory-mapped and its sections are parsed into keyspaces,
+     * which can be given to {@code WordProducerManager.Builder.addKeyspaces} so that
+     * the stored words are produced into queues again.
+     * @param path the path of the keyspace file to be read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public KeyspaceReader(Path path) throws IOException
+    {
+        file = new MappedFile(path);
+        keyspaces = new ArrayList<>();
+
+        try
+        {
+            if (file.size() < 2 * Integer.BYTES || readInt() != KeyspaceFormat.MAGIC)
+            {
+                throw new RuntimeException("Not a keyspace file!: " + path);
+            }
+
+            int version = readInt();
+            if (version != KeyspaceFormat.VERSION)
+            {
+                throw new RuntimeException(String.format("Unsupported keyspace file version!: %d", version));
+            }
+
+            while (position < file.size())
+            {
+                keyspaces.add(readSection());
+            }
+        }
+        catch (RuntimeException e)
+        {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Parses the section starting from the current position.
+     * @return the keyspace defined by the section
+     */
+    private Keyspace readSection()
+    {
+        require(1);
+        byte type = file.get(position++);
+        int length = readInt();
+        int symbolCount = readInt();
+        List<String> symbols = new ArrayList<>(symbolCount);
+        for (int i = 0; i < symbolCount; i++)
+        {
+            symbols.add(new String(readBytes(), StandardCharsets.UTF_8));
+        }
+
+        if (type == KeyspaceFormat.SECTION_RANGE)
+        {
+            BigInteger startIndex = new BigInteger(readBytes());
+            BigInteger endIndex = new BigInteger(readBytes());
+            return new SymbolKeyspace(symbols, length, startIndex, endIndex);
+        }
+
+        if (type == KeyspaceFormat.SECTION_PACKED)
+        {
+            require(Long.BYTES + 1);
+            long wordCount = file.getLong(position);
+            position += Long.BYTES;
+            int bitsPerSymbol = file.get(position++);
+            if (bitsPerSymbol != KeyspaceFormat.bitsPerSymbol(symbolCount))
+            {
+                throw new RuntimeException(String.format("Corrupted keyspace file!: %d bits per symbol " +
+                        "found for a symbol table of size %d", bitsPerSymbol, symbolCount));
+            }
+
+            long dataPosition = position;
+            BigInteger bitCount = BigInteger.valueOf(wordCount).multiply(BigInteger.valueOf((long) length * bitsPerSymbol));
+            if (wordCount < 0 || length <= 0 || bitCount.compareTo(BigInteger.valueOf(8 * (file.size() - position))) > 0)
+            {
+                throw new RuntimeException("Corrupted keyspace file!: packed section is truncated");
+            }
+            position += (bitCount.longValue() + 7) >>> 3;
+            return new PackedKeyspace(symbols, length, wordCount, file, dataPosition, bitsPerSymbol);
+        }
+
+        throw new RuntimeException(String.format("Corrupted keyspace file!: unknown section type %d", type));
+    }
+
+    /**
+     * Checks that the given number of bytes can be read from the current position.
+     * @param byteCount the number of bytes to be read
+     */
+    private void require(long byteCount)
+    {
+        if (byteCount < 0 || position + byteCount > file.size())
+        {
+            throw new RuntimeException("Corrupted keyspace file!: section is truncated");
+        }
+    }
+
+    private int readInt()
+    {
+        require(Integer.BYTES);
+        int result = file.getInt(position);
+        position += Integer.BYTES;
+        return result;
+    }
+
+    private byte[] readBytes()
+    {
+        int byteCount = readInt();
+        require(byteCount);
+        byte[] bytes = new byte[byteCount];
+        file.get(position, bytes, 0, bytes.length);
+        position += bytes.length;
+        return bytes;
+    }
+
+    /**
+     * Accessor method for keyspaces.
+     * @return the list of keyspaces defined by the sections of the file, in file order
+     */
+    public List<Keyspace> getKeyspaces()
+    {
+        return Collections.unmodifiableList(keyspaces);
+    }
+
+    /**
+     * Returns an iterator over all the words stored in the file, in file order.
+     * @return an iterator over all the words stored in the file
+     */
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new Iterator<String>()
+        {
+            private int keyspaceIndex;
+            private Iterator<String> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!current.hasNext() && keyspaceIndex < keyspaces.size())
+                {
+                    Keyspace keyspace = keyspaces.get(keyspaceIndex++);
+                    current = keyspace.createGenerator(BigInteger.ZERO,
+                            keyspace.getCount().subtract(BigInteger.ONE)).iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public String next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        file.close();
+    }
+}
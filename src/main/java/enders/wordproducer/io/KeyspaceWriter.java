@@ -0,0 +1,286 @@
+package enders.wordproducer.io;
+
+import enders.wordproducer.util.SymbolTokenizer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class KeyspaceWriter implements Closeable
+{
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private long writtenBytes;
+
+    private List<String> packedSymbols;
+    private int packedLength;
+    private int bitsPerSymbol;
+    private long wordCountPosition;
+    private long wordCount;
+    private long bitBuffer;
+    private int bitCount;
+
+    /**
+     * Constructor of KeyspaceWriter class.
+     * The file is created, or truncated if it already exists.
+     * @param path the path of the keyspace file to be written
+     * @throws IOException if the file cannot be opened
+     */
+    public KeyspaceWriter(Path path) throws IOException
+    {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocate(1 << 16);
+        putInt(KeyspaceFormat.MAGIC);
+        putInt(KeyspaceFormat.VERSION);
+    }
+
+    /**
+     * Writes a section that covers all the words of length {@code <length>}
+     * that may be generated using the given symbol list.
+     * @param symbols the symbol list to be used for producing words
+     * @param length the number of symbols found in each word
+     * @throws IOException if the section cannot be written
+     */
+    public void writeKeyspace(List<String> symbols, int length) throws IOException
+    {
+        writeRange(symbols, length, BigInteger.ZERO,
+                BigInteger.valueOf(symbols.size()).pow(length).subtract(BigInteger.ONE));
+    }
+
+    /**
+     * Writes a section that covers the words mapped by indices between
+     * {@code <startIndex>} and {@code <endIndex>} (both inclusive). Only the bounds are stored,
+     * the words are expanded when the file is read.
+     * @param symbols the symbol list to be used for producing words
+     * @param length the number of symbols found in each word
+     * @param startIndex the lower bound index (inclusive) of the covered words
+     * @param endIndex the upper bound index (inclusive) of the covered words
+     * @throws IOException if the section cannot be written
+     */
+    public void writeRange(List<String> symbols, int length, BigInteger startIndex, BigInteger endIndex)
+            throws IOException
+    {
+        if (startIndex.signum() < 0 ||
+                endIndex.compareTo(BigInteger.valueOf(symbols.size()).pow(length)) >= 0)
+        {
+            throw new RuntimeException(String.format("Invalid keyspace range!: [%d, %d]", startIndex, endIndex));
+        }
+
+        endPacked();
+        putSectionHeader(KeyspaceFormat.SECTION_RANGE, symbols, length);
+        putBytes(startIndex.toByteArray());
+        putBytes(endIndex.toByteArray());
+    }
+
+    /**
+     * Starts a packed section whose words are added one by one by
+     * {@link #writeIndices(int[])} or {@link #writeWord(String)}.
+     * A previously started packed section is ended first.
+     * @param symbols the symbol list of the words of the section
+     * @param length the number of symbols found in each word
+     * @throws IOException if the section cannot be written
+     */
+    public void beginPacked(List<String> symbols, int length) throws IOException
+    {
+        endPacked();
+        putSectionHeader(KeyspaceFormat.SECTION_PACKED, symbols, length);
+        packedSymbols = symbols;
+        packedLength = length;
+        bitsPerSymbol = KeyspaceFormat.bitsPerSymbol(symbols.size());
+        wordCountPosition = writtenBytes + buffer.position();
+        wordCount = 0;
+        putLong(0);
+        put((byte) bitsPerSymbol);
+    }
+
+    /**
+     * Adds the word made up of the given symbol indices to the current packed section.
+     * @param symbolIndices the indices of the symbols that make up the word
+     * @throws IOException if the word cannot be written
+     */
+    public void writeIndices(int[] symbolIndices) throws IOException
+    {
+        if (packedSymbols == null)
+        {
+            throw new RuntimeException("No packed section has been started!");
+        }
+
+        if (symbolIndices.length != packedLength)
+        {
+            throw new RuntimeException(String.format("Word length must be %d, found %d!",
+                    packedLength, symbolIndices.length));
+        }
+
+        for (int symbolIndex: symbolIndices)
+        {
+            if (symbolIndex < 0 || symbolIndex >= packedSymbols.size())
+            {
+                throw new RuntimeException(String.format("Invalid symbol index!: %d", symbolIndex));
+            }
+            putBits(symbolIndex);
+        }
+        wordCount++;
+    }
+
+    /**
+     * Adds the given word to the current packed section.
+     * @param word the word to be added. It must be made up of the symbols of the section.
+     * @throws IOException if the word cannot be written
+     */
+    public void writeWord(String word) throws IOException
+    {
+        if (packedSymbols == null)
+        {
+            throw new RuntimeException("No packed section has been started!");
+        }
+
+        int[] symbolIndices = SymbolTokenizer.tokenize(word, packedSymbols, packedLength);
+        if (symbolIndices == null)
+        {
+            throw new RuntimeException(String.format("Word cannot be made up of %d symbols of the section!: %s",
+                    packedLength, word));
+        }
+        writeIndices(symbolIndices);
+    }
+
+    /**
+     * Ends the current packed section, if any, by writing its remaining bits and its word count.
+     * @throws IOException if the section cannot be written
+     */
+    public void endPacked() throws IOException
+    {
+        if (packedSymbols == null)
+        {
+            return;
+        }
+
+        if (bitCount > 0)
+        {
+            put((byte) (bitBuffer << (8 - bitCount)));
+            bitCount = 0;
+        }
+        flush();
+
+        ByteBuffer wordCountBuffer = ByteBuffer.allocate(Long.BYTES);
+        wordCountBuffer.putLong(wordCount);
+        wordCountBuffer.flip();
+        while (wordCountBuffer.hasRemaining())
+        {
+            channel.write(wordCountBuffer, wordCountPosition + wordCountBuffer.position());
+        }
+        packedSymbols = null;
+    }
+
+    /**
+     * Writes the common header of a section.
+     * @param type the type of the section
+     * @param symbols the symbol table of the section
+     * @param length the number of symbols found in each word
+     * @throws IOException if the header cannot be written
+     */
+    private void putSectionHeader(byte type, List<String> symbols, int length) throws IOException
+    {
+        if (length <= 0)
+        {
+            throw new RuntimeException("Length must be positive!");
+        }
+
+        if (symbols.size() == 0)
+        {
+            throw new RuntimeException("Symbols list cannot be empty!");
+        }
+
+        put(type);
+        putInt(length);
+        putInt(symbols.size());
+        for (String symbol: symbols)
+        {
+            putBytes(symbol.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Appends the lowest bitsPerSymbol bits of the given value to the packed data.
+     * @param value the value to be appended
+     * @throws IOException if the data cannot be written
+     */
+    private void putBits(int value) throws IOException
+    {
+        bitBuffer = (bitBuffer << bitsPerSymbol) | value;
+        bitCount += bitsPerSymbol;
+        while (bitCount >= 8)
+        {
+            bitCount -= 8;
+            put((byte) (bitBuffer >>> bitCount));
+        }
+    }
+
+    private void putBytes(byte[] bytes) throws IOException
+    {
+        putInt(bytes.length);
+        for (byte b: bytes)
+        {
+            put(b);
+        }
+    }
+
+    private void putInt(int value) throws IOException
+    {
+        for (int shift = Integer.SIZE - 8; shift >= 0; shift -= 8)
+        {
+            put((byte) (value >>> shift));
+        }
+    }
+
+    private void putLong(long value) throws IOException
+    {
+        for (int shift = Long.SIZE - 8; shift >= 0; shift -= 8)
+        {
+            put((byte) (value >>> shift));
+        }
+    }
+
+    private void put(byte b) throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    /**
+     * Writes the buffered bytes to the file.
+     * @throws IOException if the bytes cannot be written
+     */
+    private void flush() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+        {
+            writtenBytes += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try
+        {
+            endPacked();
+            flush();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package enders.wordproducer.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedFile implements Closeable
+{
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final long size;
+
+    /**
+     * Constructor of MappedFile class.
+     * The file is memory-mapped as read-only in windows of 1 GiB
+     * so that files larger than 2 GiB can be accessed as well.
+     * @param path the path of the file to be mapped
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedFile(Path path) throws IOException
+    {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        windows = new MappedByteBuffer[(int) ((size + WINDOW_SIZE - 1) >>> WINDOW_SHIFT)];
+        for (int i = 0; i < windows.length; i++)
+        {
+            long position = (long) i << WINDOW_SHIFT;
+            windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        }
+    }
+
+    /**
+     * Returns the byte found at the given position of the file.
+     * @param position the position of the byte
+     * @return the byte found at the given position
+     */
+    public byte get(long position)
+    {
+        return windows[(int) (position >>> WINDOW_SHIFT)].get((int) (position & (WINDOW_SIZE - 1)));
+    }
+
+    /**
+     * Copies {@code <length>} bytes starting from the given position of the file
+     * to {@code <destination>}.
+     * @param position the position of the first byte to be copied
+     * @param destination the array where the bytes are copied to
+     * @param offset the offset in {@code <destination>} where the first byte is copied to
+     * @param length the number of bytes to be copied
+     */
+    public void get(long position, byte[] destination, int offset, int length)
+    {
+        while (length > 0)
+        {
+            MappedByteBuffer window = windows[(int) (position >>> WINDOW_SHIFT)];
+            int windowOffset = (int) (position & (WINDOW_SIZE - 1));
+            int count = Math.min(length, window.capacity() - windowOffset);
+            ByteBuffer view = window.duplicate();
+            view.position(windowOffset);
+            view.get(destination, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Reads a big-endian int starting from the given position of the file.
+     * @param position the position of the first byte of the int
+     * @return the read int
+     */
+    public int getInt(long position)
+    {
+        int result = 0;
+        for (int i = 0; i < Integer.BYTES; i++)
+        {
+            result = (result << 8) | (get(position + i) & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * Reads a big-endian long starting from the given position of the file.
+     * @param position the position of the first byte of the long
+     * @return the read long
+     */
+    public long getLong(long position)
+    {
+        long result = 0;
+        for (int i = 0; i < Long.BYTES; i++)
+        {
+            result = (result << 8) | (get(position + i) & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * Accessor method for size.
+     * @return the size of the file in bytes
+     */
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
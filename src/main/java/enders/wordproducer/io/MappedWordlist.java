@@ -0,0 +1,113 @@
+package enders.wordproducer.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+public class MappedWordlist extends AbstractList<String> implements RandomAccess, Closeable
+{
+    private final MappedFile file;
+    private long[] lineStarts;
+    private int[] lineLengths;
+    private int size;
+
+    /**
+     * Constructor of MappedWordlist class.
+     * The file is memory-mapped and only the offsets of its lines are kept in memory;
+     * a word is decoded from the mapped file each time it is accessed.
+     * Empty lines are skipped and line endings (LF or CRLF) are not part of the words.
+     * @param path the path of the UTF-8 encoded wordlist file with one word per line
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedWordlist(Path path) throws IOException
+    {
+        file = new MappedFile(path);
+        lineStarts = new long[1024];
+        lineLengths = new int[1024];
+        indexLines();
+    }
+
+    /**
+     * Scans the mapped file and records the offset and the byte length of each non-empty line.
+     */
+    private void indexLines()
+    {
+        long lineStart = 0;
+        long fileSize = file.size();
+        for (long position = 0; position <= fileSize; position++)
+        {
+            if (position == fileSize || file.get(position) == '\n')
+            {
+                long lineEnd = position;
+                if (lineEnd > lineStart && file.get(lineEnd - 1) == '\r')
+                {
+                    lineEnd--;
+                }
+
+                if (lineEnd > lineStart)
+                {
+                    addLine(lineStart, lineEnd - lineStart);
+                }
+                lineStart = position + 1;
+            }
+        }
+        lineStarts = Arrays.copyOf(lineStarts, size);
+        lineLengths = Arrays.copyOf(lineLengths, size);
+    }
+
+    private void addLine(long lineStart, long lineLength)
+    {
+        if (size == Integer.MAX_VALUE - 8)
+        {
+            throw new RuntimeException("Wordlist has too many lines!");
+        }
+
+        if (lineLength > Integer.MAX_VALUE)
+        {
+            throw new RuntimeException(String.format("Line %d of the wordlist is too long!", size + 1));
+        }
+
+        if (size == lineStarts.length)
+        {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) size * 2);
+            lineStarts = Arrays.copyOf(lineStarts, capacity);
+            lineLengths = Arrays.copyOf(lineLengths, capacity);
+        }
+        lineStarts[size] = lineStart;
+        lineLengths[size] = (int) lineLength;
+        size++;
+    }
+
+    /**
+     * Decodes and returns the word found at the given line of the wordlist.
+     * @param index the index of the word (empty lines are not counted)
+     * @return the word found at the given index
+     */
+    @Override
+    public String get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+        }
+        byte[] bytes = new byte[lineLengths[index]];
+        file.get(lineStarts[index], bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        file.close();
+    }
+}
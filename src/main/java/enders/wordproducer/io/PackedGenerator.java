@@ -0,0 +1,94 @@
+package enders.wordproducer.io;
+
+import enders.wordproducer.generator.DistributableGenerator;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.List;
+
+public class PackedGenerator extends DistributableGenerator
+{
+    private final MappedFile file;
+    private final long dataPosition;
+    private final int bitsPerSymbol;
+    private final int base;
+
+    /**
+     * Constructor of PackedGenerator class
+     * @param generationPool a List of Strings that defines the symbols used for word generation.
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words stored at indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     * @param digitCount the number of symbols to be used in produced words.
+     * @param file the mapped keyspace file where the packed words are stored
+     * @param dataPosition the position of the first byte of the packed words in the file
+     * @param bitsPerSymbol the number of bits each symbol index is packed into
+     */
+    PackedGenerator(List<String> generationPool, BigInteger lowerBound, BigInteger upperBound, int digitCount,
+                    MappedFile file, long dataPosition, int bitsPerSymbol)
+    {
+        super(generationPool, lowerBound, upperBound, digitCount);
+        this.file = file;
+        this.dataPosition = dataPosition;
+        this.bitsPerSymbol = bitsPerSymbol;
+        this.base = generationPool.size();
+    }
+
+    protected class PackedGeneratorIterator extends DistributableGeneratorIterator
+    {
+        @Override
+        public String next()
+        {
+            String result = generateWord(currentIndex);
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return result;
+        }
+    }
+
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        StringBuilder stringBuilder = new StringBuilder();
+        long bitPosition = Math.multiplyExact(index.longValueExact(), (long) digitCount * bitsPerSymbol);
+        for (int i = 0; i < digitCount; i++)
+        {
+            int symbolIndex = readBits(bitPosition);
+            if (symbolIndex >= base)
+            {
+                throw new RuntimeException(String.format("Corrupted keyspace file!: symbol index %d " +
+                        "is out of the symbol table of size %d", symbolIndex, base));
+            }
+            stringBuilder.append(generationPool.get(symbolIndex));
+            bitPosition += bitsPerSymbol;
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Reads bitsPerSymbol bits starting from the given bit position of the packed words.
+     * @param bitPosition the position of the first bit to be read
+     * @return the value of the read bits
+     */
+    private int readBits(long bitPosition)
+    {
+        int result = 0;
+        int remaining = bitsPerSymbol;
+        while (remaining > 0)
+        {
+            int b = file.get(dataPosition + (bitPosition >>> 3)) & 0xFF;
+            int available = 8 - (int) (bitPosition & 7);
+            int taken = Math.min(available, remaining);
+            result = (result << taken) | ((b >>> (available - taken)) & ((1 << taken) - 1));
+            bitPosition += taken;
+            remaining -= taken;
+        }
+        return result;
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new PackedGeneratorIterator();
+    }
+}
@@ -0,0 +1,65 @@
+package enders.wordproducer.io;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+import java.util.List;
+
+public class PackedKeyspace extends Keyspace
+{
+    private final List<String> symbols;
+    private final int length;
+    private final long wordCount;
+    private final MappedFile file;
+    private final long dataPosition;
+    private final int bitsPerSymbol;
+
+    /**
+     * Constructor of PackedKeyspace class
+     * @param symbols the symbol table of the packed words
+     * @param length the number of symbols found in each word
+     * @param wordCount the number of packed words
+     * @param file the mapped keyspace file where the packed words are stored
+     * @param dataPosition the position of the first byte of the packed words in the file
+     * @param bitsPerSymbol the number of bits each symbol index is packed into
+     */
+    PackedKeyspace(List<String> symbols, int length, long wordCount,
+                   MappedFile file, long dataPosition, int bitsPerSymbol)
+    {
+        this.symbols = symbols;
+        this.length = length;
+        this.wordCount = wordCount;
+        this.file = file;
+        this.dataPosition = dataPosition;
+        this.bitsPerSymbol = bitsPerSymbol;
+    }
+
+    /**
+     * Accessor method for symbols.
+     * @return the symbol table of the packed words
+     */
+    @Override
+    public List<String> getSymbols()
+    {
+        return symbols;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return length;
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return BigInteger.valueOf(wordCount);
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new PackedGenerator(symbols, lowerBound, upperBound, length, file, dataPosition, bitsPerSymbol);
+    }
+}
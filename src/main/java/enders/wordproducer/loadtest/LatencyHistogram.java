@@ -0,0 +1,119 @@
+package enders.wordproducer.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent histogram of non-negative values with log-linear buckets:
+ * values below 128 are recorded exactly, larger values in 64 buckets per power of two,
+ * which keeps the relative error of reported percentiles below 1.6%.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong totalValue;
+    private final AtomicLong maxValue;
+
+    /**
+     * Constructor of LatencyHistogram class
+     */
+    public LatencyHistogram()
+    {
+        counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT);
+        totalCount = new AtomicLong();
+        totalValue = new AtomicLong();
+        maxValue = new AtomicLong();
+    }
+
+    /**
+     * Records the given value.
+     * @param value the value to be recorded. Negative values are recorded as 0.
+     */
+    public void record(long value)
+    {
+        value = Math.max(0, value);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        maxValue.accumulateAndGet(value, Math::max);
+    }
+
+    private static int bucketIndex(long value)
+    {
+        if (value < 2 * SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return magnitude * SUB_BUCKET_COUNT + (int) (value >>> magnitude);
+    }
+
+    /**
+     * Returns the highest value that falls into the bucket of the given index.
+     * @param index the index of the bucket
+     * @return the highest value of the bucket
+     */
+    private static long highestValue(int index)
+    {
+        if (index < 2 * SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index - magnitude * SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the recorded values fall.
+     * @param percentile the percentage between 0 and 100
+     * @return the value at the given percentile, or 0 if no value has been recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long count = totalCount.get();
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int i = 0; i < counts.length(); i++)
+        {
+            cumulativeCount += counts.get(i);
+            if (cumulativeCount >= target)
+            {
+                return Math.min(highestValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    /**
+     * Accessor method for totalCount.
+     * @return the number of recorded values
+     */
+    public long getTotalCount()
+    {
+        return totalCount.get();
+    }
+
+    /**
+     * Accessor method for maxValue.
+     * @return the largest recorded value
+     */
+    public long getMaxValue()
+    {
+        return maxValue.get();
+    }
+
+    /**
+     * Calculates the mean of the recorded values.
+     * @return the mean of the recorded values, or 0 if no value has been recorded
+     */
+    public double getMean()
+    {
+        long count = totalCount.get();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+}
@@ -0,0 +1,306 @@
+package enders.wordproducer.loadtest;
+
+import enders.wordproducer.manager.ProducerJob;
+import enders.wordproducer.manager.WordProducerEngine;
+import enders.wordproducer.manager.WordProducerManager;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test of word production under production-like conditions.
+ * <p>
+ * Synthetic consumers spend a tunable time on each word; with skew, consumer {@code i} of {@code n}
+ * spends {@code cost * (1 + skew * i / (n - 1))}. Throughput, queue depth and producer blocked time
+ * are sampled over time, and the time each word waits in its queue is recorded in a histogram.
+ * <p>
+ * Options (all optional, given as {@code --name=value}):
+ * {@code mode} (queues, ordered or engine), {@code queues}, {@code threadsPerQueue},
+ * {@code consumersPerQueue}, {@code symbols}, {@code minLength}, {@code maxLength},
+ * {@code queueCapacity}, {@code costNanos}, {@code skew}, {@code sampleMillis},
+ * {@code durationSeconds} (0 runs until the keyspace is exhausted) and {@code report}.
+ * In ordered mode, the {@code queues * threadsPerQueue} producer threads all feed a single queue.
+ * Since the engine never blocks on a full queue, the blocked time reported in engine mode is the time
+ * units of work have waited parked on a full queue.
+ */
+public class LoadHarness
+{
+    private final String mode;
+    private final int numberOfQueues;
+    private final int threadsPerQueue;
+    private final int consumersPerQueue;
+    private final String symbols;
+    private final int minLength;
+    private final int maxLength;
+    private final int queueCapacity;
+    private final long costNanos;
+    private final double skew;
+    private final long sampleMillis;
+    private final long durationSeconds;
+    private final String reportPath;
+
+    private final LatencyHistogram latencyHistogram;
+    private final List<RecordingQueue> recordingQueues;
+    private final AtomicLong consumedWordCount;
+    private volatile boolean stopped;
+    private ProducerJob job;
+
+    /**
+     * Constructor of LoadHarness class
+     * @param options mapping of option names to values
+     */
+    public LoadHarness(Map<String, String> options)
+    {
+        mode = options.getOrDefault("mode", "queues");
+        numberOfQueues = Integer.parseInt(options.getOrDefault("queues", "4"));
+        threadsPerQueue = Integer.parseInt(options.getOrDefault("threadsPerQueue", "1"));
+        consumersPerQueue = Integer.parseInt(options.getOrDefault("consumersPerQueue", "1"));
+        symbols = options.getOrDefault("symbols", "abcdefghijklmnopqrstuvwxyz0123456789");
+        minLength = Integer.parseInt(options.getOrDefault("minLength", "1"));
+        maxLength = Integer.parseInt(options.getOrDefault("maxLength", "4"));
+        queueCapacity = Integer.parseInt(options.getOrDefault("queueCapacity", "1024"));
+        costNanos = Long.parseLong(options.getOrDefault("costNanos", "1000"));
+        skew = Double.parseDouble(options.getOrDefault("skew", "0"));
+        sampleMillis = Long.parseLong(options.getOrDefault("sampleMillis", "1000"));
+        durationSeconds = Long.parseLong(options.getOrDefault("durationSeconds", "0"));
+        reportPath = options.getOrDefault("report", "load-report.txt");
+
+        latencyHistogram = new LatencyHistogram();
+        recordingQueues = new ArrayList<>();
+        consumedWordCount = new AtomicLong();
+    }
+
+    /**
+     * Creates a queue that records word latency and producer blocked time.
+     * @return the created queue
+     */
+    private synchronized BlockingQueue<String> createQueue()
+    {
+        RecordingQueue queue = new RecordingQueue(queueCapacity, latencyHistogram);
+        recordingQueues.add(queue);
+        return queue;
+    }
+
+    /**
+     * Runs the load test and writes the report.
+     * @throws IOException if the report cannot be written
+     * @throws InterruptedException if interrupted while waiting for the consumers
+     */
+    public void run() throws IOException, InterruptedException
+    {
+        List<String> symbolList = symbols.chars()
+                .mapToObj(e -> String.valueOf((char) e))
+                .collect(Collectors.toList());
+        WordProducerManager.Builder builder = new WordProducerManager.Builder()
+                .setNumberOfQueues(numberOfQueues)
+                .setThreadsPerQueue(threadsPerQueue)
+                .putSymbolsToRange(minLength, maxLength, symbolList)
+                .setQueueFactory(this::createQueue);
+
+        List<BlockingQueue<String>> queues;
+        BooleanSupplier completed;
+        WordProducerEngine engine = null;
+        WordProducerManager wordProducerManager = null;
+        long start = System.nanoTime();
+        if (mode.equals("engine"))
+        {
+            engine = new WordProducerEngine(numberOfQueues * threadsPerQueue);
+            job = engine.submit(builder);
+            queues = job.getQueues();
+            completed = job::isCompleted;
+        }
+        else
+        {
+            if (mode.equals("ordered"))
+            {
+                builder.setNumberOfQueues(1).setThreadsPerQueue(numberOfQueues * threadsPerQueue).setOrdered(true);
+            }
+            wordProducerManager = builder.build();
+            queues = wordProducerManager.produce();
+            completed = wordProducerManager::isCompleted;
+        }
+
+        List<Thread> consumers = new ArrayList<>();
+        int consumerCount = queues.size() * consumersPerQueue;
+        for (int i = 0; i < consumerCount; i++)
+        {
+            double factor = consumerCount == 1 ? 1 : 1 + skew * i / (consumerCount - 1);
+            Thread consumer = new Thread(createConsumer(queues.get(i % queues.size()),
+                    (long) (costNanos * factor), completed));
+            consumer.start();
+            consumers.add(consumer);
+        }
+
+        List<String> samples = new ArrayList<>();
+        long previousCount = 0;
+        long previousTime = start;
+        long maxQueueDepth = 0;
+        while (!completed.getAsBoolean())
+        {
+            Thread.sleep(sampleMillis);
+            long now = System.nanoTime();
+            long count = consumedWordCount.get();
+            long queueDepth = 0;
+            for (BlockingQueue<String> queue: queues)
+            {
+                queueDepth += queue.size();
+            }
+            maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+            samples.add(String.format("%10.1f %14d %14.0f %12d %14.1f",
+                    (now - start) / 1e9, count, (count - previousCount) * 1e9 / (now - previousTime),
+                    queueDepth, getBlockedNanos() / 1e6));
+            previousCount = count;
+            previousTime = now;
+
+            if (durationSeconds > 0 && now - start >= TimeUnit.SECONDS.toNanos(durationSeconds))
+            {
+                break;
+            }
+        }
+
+        stopped = true;
+        for (Thread consumer: consumers)
+        {
+            consumer.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        writeReport(samples, elapsed, maxQueueDepth, completed.getAsBoolean());
+
+        // a run ended by durationSeconds leaves producers waiting on full queues
+        if (engine != null)
+        {
+            engine.shutdownNow();
+            engine.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        else
+        {
+            wordProducerManager.stop();
+        }
+    }
+
+    /**
+     * Creates a consumer that takes words from the given queue and busy-spins for the given time per word.
+     * @param queue the queue the consumer takes words from
+     * @param wordCostNanos the time the consumer spends on each word
+     * @param completed tells whether the overall process has been completed
+     * @return the created consumer
+     */
+    private Runnable createConsumer(BlockingQueue<String> queue, long wordCostNanos, BooleanSupplier completed)
+    {
+        return () -> {
+            while (!stopped && !completed.getAsBoolean())
+            {
+                try
+                {
+                    String word = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (word != null)
+                    {
+                        long end = System.nanoTime() + wordCostNanos;
+                        while (System.nanoTime() < end)
+                        {
+                            // busy-spin to simulate the work done per word
+                        }
+                        consumedWordCount.incrementAndGet();
+                    }
+                }
+                catch (InterruptedException e)
+                {
+                    e.printStackTrace();
+                    return;
+                }
+            }
+        };
+    }
+
+    private synchronized long getBlockedNanos()
+    {
+        if (job != null)
+        {
+            return job.getParkedNanos();
+        }
+
+        long result = 0;
+        for (RecordingQueue queue: recordingQueues)
+        {
+            result += queue.getBlockedNanos();
+        }
+        return result;
+    }
+
+    /**
+     * Writes the configuration, the samples taken over time and the latency percentiles to the report file.
+     * @param samples the samples taken over time
+     * @param elapsedNanos the duration of the test
+     * @param maxQueueDepth the largest total queue depth sampled
+     * @param completed whether all words have been produced and consumed
+     * @throws IOException if the report cannot be written
+     */
+    private void writeReport(List<String> samples, long elapsedNanos, long maxQueueDepth, boolean completed)
+            throws IOException
+    {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(reportPath),
+                StandardCharsets.UTF_8)))
+        {
+            writer.println("# WordProducer load test report");
+            writer.printf("mode=%s queues=%d threadsPerQueue=%d consumersPerQueue=%d symbols=%d lengths=%d-%d " +
+                            "queueCapacity=%d costNanos=%d skew=%.2f%n", mode, numberOfQueues, threadsPerQueue,
+                    consumersPerQueue, symbols.length(), minLength, maxLength, queueCapacity, costNanos, skew);
+            writer.printf("completed=%b elapsedSeconds=%.3f consumedWords=%d averageWordsPerSecond=%.0f%n",
+                    completed, elapsedNanos / 1e9, consumedWordCount.get(),
+                    consumedWordCount.get() * 1e9 / elapsedNanos);
+            writer.printf("producerBlockedMillis=%.1f maxQueueDepth=%d%n", getBlockedNanos() / 1e6, maxQueueDepth);
+            writer.println();
+            writer.println("# samples");
+            writer.printf("%10s %14s %14s %12s %14s%n", "seconds", "words", "wordsPerSecond", "queueDepth",
+                    "blockedMillis");
+            for (String sample: samples)
+            {
+                writer.println(sample);
+            }
+            writer.println();
+            writer.println("# end-to-end word latency (nanoseconds)");
+            writer.printf("count=%d mean=%.0f%n", latencyHistogram.getTotalCount(), latencyHistogram.getMean());
+            for (double percentile: new double[] {50, 90, 99, 99.9, 99.99})
+            {
+                writer.printf("p%s=%d%n", percentile, latencyHistogram.getValueAtPercentile(percentile));
+            }
+            writer.printf("max=%d%n", latencyHistogram.getMaxValue());
+        }
+    }
+
+    /**
+     * Parses {@code --name=value} arguments and runs the load test.
+     * @param args the options of the load test
+     * @throws Exception if the load test fails
+     */
+    public static void main(String[] args) throws Exception
+    {
+        Map<String, String> options = new HashMap<>();
+        for (String arg: args)
+        {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+            {
+                throw new RuntimeException("Options must be given as --name=value: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadHarness loadHarness = new LoadHarness(options);
+        loadHarness.run();
+        System.out.println("Report written to " + loadHarness.reportPath);
+        System.exit(0);
+    }
+}
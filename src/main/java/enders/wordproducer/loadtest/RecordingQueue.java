@@ -0,0 +1,176 @@
+package enders.wordproducer.loadtest;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue that records how long each word waits in the queue
+ * and how long producers are blocked on a full queue.
+ */
+public class RecordingQueue extends AbstractQueue<String> implements BlockingQueue<String>
+{
+    private final ArrayBlockingQueue<TimedWord> queue;
+    private final LatencyHistogram latencyHistogram;
+    private final AtomicLong blockedNanos;
+
+    private static final class TimedWord
+    {
+        private final String word;
+        private final long enqueueTime;
+
+        private TimedWord(String word)
+        {
+            this.word = word;
+            this.enqueueTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Constructor of RecordingQueue class
+     * @param capacity the capacity of the queue
+     * @param latencyHistogram the histogram where the time each word spends in the queue is recorded
+     */
+    public RecordingQueue(int capacity, LatencyHistogram latencyHistogram)
+    {
+        queue = new ArrayBlockingQueue<>(capacity);
+        this.latencyHistogram = latencyHistogram;
+        blockedNanos = new AtomicLong();
+    }
+
+    /**
+     * Returns the word of the given entry after recording its latency.
+     * @param timedWord the entry taken from the queue, or null
+     * @return the word of the entry, or null if the entry is null
+     */
+    private String unwrap(TimedWord timedWord)
+    {
+        if (timedWord == null)
+        {
+            return null;
+        }
+        latencyHistogram.record(System.nanoTime() - timedWord.enqueueTime);
+        return timedWord.word;
+    }
+
+    @Override
+    public void put(String word) throws InterruptedException
+    {
+        TimedWord timedWord = new TimedWord(word);
+        if (!queue.offer(timedWord))
+        {
+            long start = System.nanoTime();
+            queue.put(timedWord);
+            blockedNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean offer(String word)
+    {
+        return queue.offer(new TimedWord(word));
+    }
+
+    @Override
+    public boolean offer(String word, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        TimedWord timedWord = new TimedWord(word);
+        if (queue.offer(timedWord))
+        {
+            return true;
+        }
+        long start = System.nanoTime();
+        boolean result = queue.offer(timedWord, timeout, unit);
+        blockedNanos.addAndGet(System.nanoTime() - start);
+        return result;
+    }
+
+    @Override
+    public String take() throws InterruptedException
+    {
+        return unwrap(queue.take());
+    }
+
+    @Override
+    public String poll()
+    {
+        return unwrap(queue.poll());
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return unwrap(queue.poll(timeout, unit));
+    }
+
+    @Override
+    public String peek()
+    {
+        TimedWord timedWord = queue.peek();
+        return timedWord == null ? null : timedWord.word;
+    }
+
+    @Override
+    public int remainingCapacity()
+    {
+        return queue.remainingCapacity();
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection)
+    {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection, int maxElements)
+    {
+        int count = 0;
+        String word;
+        while (count < maxElements && (word = poll()) != null)
+        {
+            collection.add(word);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        final Iterator<TimedWord> iterator = queue.iterator();
+        return new Iterator<String>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next()
+            {
+                return iterator.next().word;
+            }
+        };
+    }
+
+    @Override
+    public int size()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Accessor method for blockedNanos.
+     * @return the total time producers have been blocked on this queue, in nanoseconds
+     */
+    public long getBlockedNanos()
+    {
+        return blockedNanos.get();
+    }
+}
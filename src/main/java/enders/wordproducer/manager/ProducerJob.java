@@ -0,0 +1,328 @@
+package enders.wordproducer.manager;
+
+import enders.wordproducer.distributor.ChunkDistributor;
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.producer.Chunk;
+import enders.wordproducer.util.Counter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public final class ProducerJob
+{
+    private final List<BlockingQueue<String>> queues;
+    private final ChunkDistributor chunkDistributor;
+    private final int weight;
+    private final BigInteger wordCount;
+    private final AtomicLong producedWordCount;
+    private final List<WorkUnit> parkedUnits;
+    private long claimedChunkCount;
+    private int unfinishedUnitCount;
+    private double pass;
+    private long parkedNanos;
+    private volatile RuntimeException failure;
+
+    static final class WorkUnit
+    {
+        final ProducerJob job;
+        final Iterator<String> iterator;
+        final BlockingQueue<String> queue;
+        String pendingWord;
+        long parkedAt;
+
+        private WorkUnit(ProducerJob job, Iterator<String> iterator, BlockingQueue<String> queue)
+        {
+            this.job = job;
+            this.iterator = iterator;
+            this.queue = queue;
+        }
+
+        /**
+         * Checks whether all words of the unit have been put into its queue.
+         * @return whether the unit is finished
+         */
+        boolean isFinished()
+        {
+            return pendingWord == null && !iterator.hasNext();
+        }
+    }
+
+    /**
+     * Constructor of ProducerJob class
+     * @param keyspaces the keyspaces whose words are to be produced
+     * @param numberOfQueues the number of output queues to be used
+     * @param queueFactory the factory that creates the output queues
+     * @param chunkSize the maximum number of words of a chunk
+     * @param weight the share of the engine the job gets relative to other jobs
+     * @param drainListener the listener that is run when a consumer makes room in a queue
+     *                      that the engine has found full
+     */
+    ProducerJob(List<Keyspace> keyspaces, int numberOfQueues, Supplier<BlockingQueue<String>> queueFactory,
+                int chunkSize, int weight, Runnable drainListener)
+    {
+        queues = new ArrayList<>();
+        for (int i = 0; i < numberOfQueues; i++)
+        {
+            queues.add(new SignalingQueue(queueFactory.get(), drainListener));
+        }
+        chunkDistributor = new ChunkDistributor(keyspaces, chunkSize);
+        this.weight = weight;
+        wordCount = Counter.countWords(keyspaces);
+        producedWordCount = new AtomicLong();
+        parkedUnits = new ArrayList<>();
+    }
+
+    /**
+     * Takes a unit of work whose queue has room for more words. A parked unit is preferred;
+     * otherwise the next chunk is claimed and bound to the least filled queue.
+     * @return a unit of work, or null if no unit can make progress right now
+     */
+    synchronized WorkUnit takeUnit()
+    {
+        if (failure != null)
+        {
+            return null;
+        }
+
+        for (int i = 0; i < parkedUnits.size(); i++)
+        {
+            if (parkedUnits.get(i).queue.remainingCapacity() > 0)
+            {
+                WorkUnit unit = parkedUnits.remove(i);
+                if (unit.parkedAt != 0)
+                {
+                    parkedNanos += System.nanoTime() - unit.parkedAt;
+                    unit.parkedAt = 0;
+                }
+                return unit;
+            }
+        }
+
+        if (claimedChunkCount == chunkDistributor.getChunkCount())
+        {
+            return null;
+        }
+
+        BlockingQueue<String> leastFilledQueue = null;
+        for (BlockingQueue<String> queue: queues)
+        {
+            if (leastFilledQueue == null || queue.remainingCapacity() > leastFilledQueue.remainingCapacity())
+            {
+                leastFilledQueue = queue;
+            }
+        }
+
+        if (leastFilledQueue.remainingCapacity() == 0)
+        {
+            return null;
+        }
+
+        Chunk chunk = chunkDistributor.next();
+        claimedChunkCount++;
+        try
+        {
+            WorkUnit unit = new WorkUnit(this, chunk.createGenerator().iterator(), leastFilledQueue);
+            unfinishedUnitCount++;
+            return unit;
+        }
+        catch (RuntimeException e)
+        {
+            e.printStackTrace();
+            recordFailure(e);
+            return null;
+        }
+    }
+
+    /**
+     * Puts back the given unit whose queue is full or whose time slice is over.
+     * The unit is dropped if the job has failed.
+     * @param unit the unit to be continued later
+     */
+    synchronized void park(WorkUnit unit)
+    {
+        if (failure != null)
+        {
+            unfinishedUnitCount--;
+            return;
+        }
+
+        if (unit.pendingWord != null)
+        {
+            unit.parkedAt = System.nanoTime();
+        }
+        parkedUnits.add(unit);
+    }
+
+    /**
+     * Marks the given unit as finished and the job as failed, so that no more words of
+     * the job are produced.
+     * @param unit the unit whose production has failed
+     * @param exception the cause of the failure
+     */
+    synchronized void fail(WorkUnit unit, RuntimeException exception)
+    {
+        finish(unit);
+        recordFailure(exception);
+    }
+
+    /**
+     * Records the given failure, unless an earlier one has been recorded,
+     * and drops the parked units.
+     * @param exception the cause of the failure
+     */
+    private void recordFailure(RuntimeException exception)
+    {
+        if (failure == null)
+        {
+            failure = exception;
+        }
+        unfinishedUnitCount -= parkedUnits.size();
+        parkedUnits.clear();
+    }
+
+    /**
+     * Accessor method for failure.
+     * @return the exception that stopped the production of the job, or null if the job has not failed
+     */
+    public RuntimeException getFailure()
+    {
+        return failure;
+    }
+
+    /**
+     * Accessor method for parkedNanos.
+     * @return the total time units of the job have waited parked on a full queue, in nanoseconds,
+     *         which is the counterpart of the time a producer is blocked on a full queue
+     */
+    public synchronized long getParkedNanos()
+    {
+        return parkedNanos;
+    }
+
+    /**
+     * Accessor method for pass.
+     * @return the produced word count of the job divided by its weight, as charged by the engine
+     */
+    double getPass()
+    {
+        return pass;
+    }
+
+    /**
+     * Sets the pass of the job.
+     * @param pass the produced word count of the job divided by its weight, as charged by the engine
+     */
+    void setPass(double pass)
+    {
+        this.pass = pass;
+    }
+
+    /**
+     * Marks the given unit as finished.
+     * @param unit the finished unit
+     */
+    synchronized void finish(WorkUnit unit)
+    {
+        unfinishedUnitCount--;
+    }
+
+    /**
+     * Adds the given count to the number of words put into the queues.
+     * @param count the number of words put into the queues
+     */
+    void addProducedWordCount(int count)
+    {
+        producedWordCount.addAndGet(count);
+    }
+
+    /**
+     * Accessor method for weight.
+     * @return the share of the engine the job gets relative to other jobs
+     */
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    /**
+     * Accessor method for queues.
+     * @return a List consisting of queues where the produced words are put
+     */
+    public List<BlockingQueue<String>> getQueues()
+    {
+        return queues;
+    }
+
+    /**
+     * Accessor method for wordCount.
+     * @return the count of all words of the job
+     */
+    public BigInteger getWordCount()
+    {
+        return wordCount;
+    }
+
+    /**
+     * Accessor method for producedWordCount.
+     * @return the number of words put into the queues so far
+     */
+    public long getProducedWordCount()
+    {
+        return producedWordCount.get();
+    }
+
+    /**
+     * Calculates the fraction of the words that have been put into the queues.
+     * @return the progress of the job between 0 and 1
+     */
+    public double getProgress()
+    {
+        if (wordCount.signum() == 0)
+        {
+            return 1;
+        }
+        return new BigDecimal(getProducedWordCount())
+                .divide(new BigDecimal(wordCount), MathContext.DECIMAL64).doubleValue();
+    }
+
+    /**
+     * Checks whether all words of the job have been put into the queues,
+     * or the job has failed and none of its units is in progress.
+     * @return whether the production of the job has been completed
+     */
+    public synchronized boolean isProductionCompleted()
+    {
+        return (failure != null || claimedChunkCount == chunkDistributor.getChunkCount())
+                && unfinishedUnitCount == 0;
+    }
+
+    /**
+     * Checks whether all words of the job have been put into the queues
+     * and taken by the consumers. A failed job is completed once the words produced
+     * before the failure have been taken; see {@link #getFailure()}.
+     * @return whether the overall process of the job has been completed
+     */
+    public boolean isCompleted()
+    {
+        if (!isProductionCompleted())
+        {
+            return false;
+        }
+
+        for (BlockingQueue<String> queue: queues)
+        {
+            if (!queue.isEmpty())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
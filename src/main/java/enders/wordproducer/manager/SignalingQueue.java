@@ -0,0 +1,172 @@
+package enders.wordproducer.manager;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A queue of a job that wakes the threads of the engine when a consumer makes room in it
+ * after the engine has found it full. The engine waits for this signal instead of polling
+ * its queues while all of them are full.
+ */
+final class SignalingQueue extends AbstractQueue<String> implements BlockingQueue<String>
+{
+    private final BlockingQueue<String> queue;
+    private final Runnable drainListener;
+    private volatile boolean full;
+
+    /**
+     * Constructor of SignalingQueue class
+     * @param queue the queue where the words are held
+     * @param drainListener the listener that is run when room is made in the queue
+     *                      after it has been found full
+     */
+    SignalingQueue(BlockingQueue<String> queue, Runnable drainListener)
+    {
+        this.queue = queue;
+        this.drainListener = drainListener;
+    }
+
+    /**
+     * Runs the drain listener if the queue has been found full since the last signal.
+     * The flag is checked after the removal, so a producer that finds the queue full
+     * either sees the room or is signaled.
+     */
+    private void signal()
+    {
+        if (full)
+        {
+            full = false;
+            drainListener.run();
+        }
+    }
+
+    @Override
+    public void put(String word) throws InterruptedException
+    {
+        queue.put(word);
+    }
+
+    @Override
+    public boolean offer(String word)
+    {
+        if (queue.offer(word))
+        {
+            return true;
+        }
+        full = true;
+        return false;
+    }
+
+    @Override
+    public boolean offer(String word, long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return queue.offer(word, timeout, unit);
+    }
+
+    @Override
+    public String take() throws InterruptedException
+    {
+        String word = queue.take();
+        signal();
+        return word;
+    }
+
+    @Override
+    public String poll()
+    {
+        String word = queue.poll();
+        if (word != null)
+        {
+            signal();
+        }
+        return word;
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        String word = queue.poll(timeout, unit);
+        if (word != null)
+        {
+            signal();
+        }
+        return word;
+    }
+
+    @Override
+    public String peek()
+    {
+        return queue.peek();
+    }
+
+    /**
+     * Returns the remaining capacity of the queue. A queue found full is signaled
+     * as soon as a consumer makes room in it.
+     * @return the number of words that can be put into the queue without blocking
+     */
+    @Override
+    public int remainingCapacity()
+    {
+        int remainingCapacity = queue.remainingCapacity();
+        if (remainingCapacity == 0)
+        {
+            full = true;
+            // a consumer may have made room before seeing the flag
+            remainingCapacity = queue.remainingCapacity();
+        }
+        return remainingCapacity;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection)
+    {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> collection, int maxElements)
+    {
+        int count = queue.drainTo(collection, maxElements);
+        if (count > 0)
+        {
+            signal();
+        }
+        return count;
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        final Iterator<String> iterator = queue.iterator();
+        return new Iterator<String>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next()
+            {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove()
+            {
+                iterator.remove();
+                signal();
+            }
+        };
+    }
+
+    @Override
+    public int size()
+    {
+        return queue.size();
+    }
+}
@@ -0,0 +1,271 @@
+package enders.wordproducer.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public final class WordProducerEngine
+{
+    private static final int WORDS_PER_TURN = 1024;
+
+    private final List<ProducerJob> jobs;
+    private final ExecutorService executorService;
+    private boolean shutdown;
+
+    /**
+     * Constructor of WordProducerEngine class that uses
+     * as many threads as the number of logical cores found in the system.
+     */
+    public WordProducerEngine()
+    {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor of WordProducerEngine class. All jobs submitted to the engine
+     * share the given number of producer threads, no matter how many jobs are in flight.
+     * @param threadCount the number of producer threads
+     */
+    public WordProducerEngine(int threadCount)
+    {
+        if (threadCount <= 0)
+        {
+            throw new RuntimeException("Number of threads must be positive!");
+        }
+
+        jobs = new ArrayList<>();
+        executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++)
+        {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run()
+                {
+                    work();
+                }
+            });
+        }
+    }
+
+    /**
+     * Submits a job with weight 1.
+     * @param builder the Builder of WordProducerManager that defines the job.
+     *                Number of threads per queue is ignored since the threads of the engine are used.
+     * @return the submitted job
+     */
+    public ProducerJob submit(WordProducerManager.Builder builder)
+    {
+        return submit(builder, 1);
+    }
+
+    /**
+     * Submits a job. Jobs get turns in proportion to their weights: a job of weight 2
+     * produces twice as many words per unit of time as a job of weight 1 while both have
+     * room in their queues.
+     * @param builder the Builder of WordProducerManager that defines the job.
+     *                Number of threads per queue is ignored since the threads of the engine are used.
+     * @param weight the share of the engine the job gets relative to other jobs
+     * @return the submitted job
+     */
+    public synchronized ProducerJob submit(WordProducerManager.Builder builder, int weight)
+    {
+        if (shutdown)
+        {
+            throw new RuntimeException("Engine has been shut down!");
+        }
+
+        if (weight <= 0)
+        {
+            throw new RuntimeException("Weight must be positive!");
+        }
+
+        if (builder.getNumberOfQueues() <= 0)
+        {
+            throw new RuntimeException("Number of queues must be set!");
+        }
+
+        if (builder.isOrdered())
+        {
+            throw new RuntimeException("Ordered jobs are not supported by the engine!");
+        }
+
+        if (builder.isBlockOutput())
+        {
+            throw new RuntimeException("Block output is not supported by the engine!");
+        }
+        builder.validate();
+
+        ProducerJob job = new ProducerJob(builder.buildKeyspaces(), builder.getNumberOfQueues(),
+                builder.getQueueFactory(), builder.getChunkSize(), weight, this::wakeUp);
+        // a new job starts at the least pass in flight so that it neither starves nor is starved
+        double pass = jobs.isEmpty() ? 0 : Double.MAX_VALUE;
+        for (ProducerJob activeJob: jobs)
+        {
+            pass = Math.min(pass, activeJob.getPass());
+        }
+        job.setPass(pass);
+
+        jobs.add(job);
+        notifyAll();
+        return job;
+    }
+
+    /**
+     * Takes the next unit of work from the job that has produced the least
+     * relative to its weight among the jobs that can make progress.
+     * @return the next unit of work, or null if the engine has been shut down and no work is left
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private synchronized ProducerJob.WorkUnit takeUnit() throws InterruptedException
+    {
+        while (true)
+        {
+            jobs.removeIf(ProducerJob::isProductionCompleted);
+            if (jobs.isEmpty() && shutdown)
+            {
+                return null;
+            }
+
+            jobs.sort((first, second) -> Double.compare(first.getPass(), second.getPass()));
+            for (ProducerJob job: jobs)
+            {
+                ProducerJob.WorkUnit unit = job.takeUnit();
+                if (unit != null)
+                {
+                    return unit;
+                }
+            }
+
+            // woken by submit, endTurn, shutdown or a consumer making room in a full queue
+            wait();
+        }
+    }
+
+    /**
+     * Wakes the threads waiting for a unit of work, since a consumer has made room
+     * in a queue that has been found full.
+     */
+    private synchronized void wakeUp()
+    {
+        notifyAll();
+    }
+
+    /**
+     * Charges the job of the given unit for the words it has produced in its turn.
+     * @param unit the unit whose turn is over
+     * @param producedWordCount the number of words produced in the turn
+     */
+    private synchronized void endTurn(ProducerJob.WorkUnit unit, int producedWordCount)
+    {
+        unit.job.setPass(unit.job.getPass() + (double) Math.max(producedWordCount, 1) / unit.job.getWeight());
+        notifyAll();
+    }
+
+    /**
+     * Takes units of work and puts their words into their queues without blocking,
+     * so that a job whose consumers are slow does not hold a thread of the engine.
+     * A unit whose words cannot be produced fails its job; the thread goes on with other jobs.
+     */
+    private void work()
+    {
+        try
+        {
+            ProducerJob.WorkUnit unit;
+            while ((unit = takeUnit()) != null)
+            {
+                int producedWordCount = 0;
+                try
+                {
+                    while (producedWordCount < WORDS_PER_TURN)
+                    {
+                        String word = unit.pendingWord;
+                        if (word == null)
+                        {
+                            if (!unit.iterator.hasNext())
+                            {
+                                break;
+                            }
+                            word = unit.iterator.next();
+                        }
+
+                        if (!unit.queue.offer(word))
+                        {
+                            unit.pendingWord = word;
+                            break;
+                        }
+                        unit.pendingWord = null;
+                        producedWordCount++;
+                    }
+
+                    if (unit.isFinished())
+                    {
+                        unit.job.finish(unit);
+                    }
+                    else
+                    {
+                        unit.job.park(unit);
+                    }
+                }
+                catch (RuntimeException e)
+                {
+                    e.printStackTrace();
+                    unit.job.fail(unit, e);
+                }
+                unit.job.addProducedWordCount(producedWordCount);
+                endTurn(unit, producedWordCount);
+            }
+        }
+        catch (InterruptedException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the number of jobs whose words are still being produced.
+     * @return the number of jobs in flight
+     */
+    public synchronized int getActiveJobCount()
+    {
+        jobs.removeIf(ProducerJob::isProductionCompleted);
+        return jobs.size();
+    }
+
+    /**
+     * Stops accepting new jobs. The threads of the engine terminate
+     * after all submitted jobs are produced.
+     */
+    public synchronized void shutdown()
+    {
+        shutdown = true;
+        notifyAll();
+        executorService.shutdown();
+    }
+
+    /**
+     * Stops accepting new jobs and abandons the jobs in flight. The threads of the engine
+     * terminate as soon as they finish their current turns; the words already put into
+     * the queues are left there.
+     */
+    public synchronized void shutdownNow()
+    {
+        shutdown = true;
+        jobs.clear();
+        notifyAll();
+        executorService.shutdown();
+    }
+
+    /**
+     * Blocks until all threads of the engine terminate after shutdown, or the timeout occurs.
+     * @param timeout the maximum time to wait
+     * @param unit the time unit of the timeout argument
+     * @return whether the threads of the engine have terminated
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return executorService.awaitTermination(timeout, unit);
+    }
+}
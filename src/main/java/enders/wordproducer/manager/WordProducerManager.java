@@ -1,21 +1,46 @@
 package enders.wordproducer.manager;
 
-import enders.wordproducer.producer.WordProducer;
+import enders.wordproducer.distributor.ChunkDistributor;
+import enders.wordproducer.distributor.ChunkSequencer;
+import enders.wordproducer.distributor.CostModel;
+import enders.wordproducer.generator.DeltaKeyspace;
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.generator.SymbolKeyspace;
+import enders.wordproducer.ordering.PermutedKeyspace;
+import enders.wordproducer.ordering.ProbabilityKeyspace;
+import enders.wordproducer.producer.ChunkProducer;
+import enders.wordproducer.rule.RuleKeyspace;
+import enders.wordproducer.rule.RuleSet;
 import enders.wordproducer.distributor.WordDistributor;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 public final class WordProducerManager
 {
     private int numberOfQueues;
     private int threadsPerQueue;
     private HashMap<Integer, List<String>> symbolMap;
+    private List<Keyspace> keyspaces;
+    private boolean ordered;
+    private boolean blockOutput;
+    private int chunkSize;
+    private Supplier<BlockingQueue<String>> queueFactory;
+    private CostModel costModel;
     private WordDistributor wordDistributor;
     private boolean completed;
+    private volatile boolean productionCompleted;
+    private volatile boolean stopped;
+    private ExecutorService executorService;
     private List<BlockingQueue<String>> queues;
 
     /**
@@ -27,9 +52,19 @@ public final class WordProducerManager
         this.numberOfQueues = builder.numberOfQueues;
         this.threadsPerQueue = builder.threadsPerQueue;
         this.symbolMap = builder.symbolMap;
+        this.ordered = builder.ordered;
+        this.blockOutput = builder.blockOutput;
+        this.chunkSize = builder.chunkSize;
+        this.queueFactory = builder.queueFactory;
+        this.costModel = builder.costModel;
 
-        wordDistributor = new WordDistributor(this);
-        wordDistributor.distribute();
+        keyspaces = builder.buildKeyspaces();
+
+        if (!ordered)
+        {
+            wordDistributor = new WordDistributor(this);
+            wordDistributor.distribute();
+        }
     }
 
     public static final class Builder
@@ -38,6 +73,15 @@ public final class WordProducerManager
         private int threadsPerQueue;
         private boolean threadsPerQueueSetAuto;
         private HashMap<Integer, List<String>> symbolMap;
+        private List<Keyspace> keyspaces;
+        private HashMap<Integer, List<String>> previousSymbolMap;
+        private RuleSet ruleSet;
+        private boolean ordered;
+        private boolean blockOutput;
+        private int chunkSize;
+        private Supplier<BlockingQueue<String>> queueFactory;
+        private CostModel costModel;
+        private Long permutationKey;
 
         /**
          * Constructor of Builder of WordProducerManager
@@ -45,6 +89,10 @@ public final class WordProducerManager
         public Builder()
         {
             symbolMap = new HashMap<>();
+            keyspaces = new ArrayList<>();
+            chunkSize = 4096;
+            queueFactory = () -> new ArrayBlockingQueue<>(1024);
+            costModel = CostModel.BYTES;
         }
 
         /**
@@ -142,6 +190,154 @@ public final class WordProducerManager
             return this;
         }
 
+        /**
+         * Adds the given keyspace to the keyspaces whose words are to be produced.
+         * Keyspaces added this way are produced after the ones defined by symbol lists.
+         * @param keyspace the keyspace whose words are to be produced
+         * @return the Builder
+         */
+        public Builder addKeyspace(Keyspace keyspace)
+        {
+            keyspaces.add(keyspace);
+            return this;
+        }
+
+        /**
+         * Adds all the given keyspaces to the keyspaces whose words are to be produced.
+         * @param keyspaces the keyspaces whose words are to be produced
+         * @return the Builder
+         */
+        public Builder addKeyspaces(List<? extends Keyspace> keyspaces)
+        {
+            for (Keyspace keyspace: keyspaces)
+            {
+                addKeyspace(keyspace);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the symbol map of a previous run so that only the words that the previous run
+         * has not produced are produced: the words of lengths not found in the previous symbol map
+         * and the words containing at least one symbol not found in the previous symbol list of
+         * their length. Keyspaces added by {@link #addKeyspace(Keyspace)} are not affected.
+         * @param previousSymbolMap the symbol map of the previous run, e.g. the value returned by
+         *                          {@code getSymbolMap()} of its WordProducerManager
+         * @return the Builder
+         */
+        public Builder setPreviousSymbolMap(HashMap<Integer, List<String>> previousSymbolMap)
+        {
+            this.previousSymbolMap = previousSymbolMap;
+            return this;
+        }
+
+        /**
+         * Sets the mutation rules to be applied to every produced word.
+         * Each rule produces one variant of each word, so the total number of produced
+         * words is multiplied by the number of rules.
+         * @param rules the rules to be applied, see {@link enders.wordproducer.rule.Rule#compile(String)}
+         *              for the rule syntax. {@code ":"} produces the word itself.
+         * @return the Builder
+         */
+        public Builder setRules(List<String> rules)
+        {
+            ruleSet = RuleSet.compile(rules);
+            return this;
+        }
+
+        /**
+         * Sets whether the words are to be produced in global index order.
+         * In ordered mode, producers generate consecutive chunks of words in parallel and
+         * the chunks are released into a single queue in index order. Keyspaces come in the
+         * order of {@code buildKeyspaces}, and each keyspace keeps its own index order:
+         * <ul>
+         *     <li>SymbolKeyspace: lexicographic order of the symbol indices</li>
+         *     <li>DeltaKeyspace: grouped by the position of the first new symbol,
+         *         lexicographic within a group</li>
+         *     <li>ProbabilityKeyspace: ascending cost level, lexicographic order of the
+         *         symbol ranks within a level</li>
+         *     <li>RuleKeyspace: every rule in turn for each word of the base keyspace</li>
+         *     <li>PermutedKeyspace: the scattered order of its permutation</li>
+         * </ul>
+         * Since there is a single queue, ordered mode requires the number of queues to be 1;
+         * the number of producer threads is {@code threadsPerQueue}.
+         * @param ordered whether the words are to be produced in global index order
+         * @return the Builder
+         */
+        public Builder setOrdered(boolean ordered)
+        {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Sets whether each element of the output queues is a block of consecutive words instead of
+         * a single word. Every word of a block is followed by a line feed, so a block can be written
+         * to a file as is. Words of symbol keyspaces are expanded from block templates, which
+         * avoids creating a String for each word; words of other keyspaces are joined into blocks
+         * of at most 4096 words. Block output is not available in ordered mode.
+         * @param blockOutput whether the queues hold blocks of line-feed terminated words
+         * @return the Builder
+         */
+        public Builder setBlockOutput(boolean blockOutput)
+        {
+            this.blockOutput = blockOutput;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of words of a chunk produced at once in ordered mode.
+         * @param chunkSize the maximum number of words of a chunk
+         * @return the Builder
+         */
+        public Builder setChunkSize(int chunkSize)
+        {
+            if (chunkSize <= 0)
+            {
+                throw new RuntimeException("Chunk size must be positive!");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Sets the factory that creates the output queues.
+         * By default, each queue is an {@code ArrayBlockingQueue} with capacity 1024.
+         * @param queueFactory the factory that creates a new output queue each time it is called
+         * @return the Builder
+         */
+        public Builder setQueueFactory(Supplier<BlockingQueue<String>> queueFactory)
+        {
+            this.queueFactory = queueFactory;
+            return this;
+        }
+
+        /**
+         * Sets the cost model by which the words are distributed among producers.
+         * By default, words are distributed by the number of bytes they take ({@code CostModel.BYTES}).
+         * The cost model has no effect in ordered mode, where producers take chunks on demand.
+         * @param costModel the cost model that estimates the cost of producing a word
+         * @return the Builder
+         */
+        public Builder setCostModel(CostModel costModel)
+        {
+            this.costModel = costModel;
+            return this;
+        }
+
+        /**
+         * Makes every keyspace produce its words in a scattered order selected by the given key,
+         * so that a partial run yields words spread over the whole keyspace instead of its first words.
+         * All words are still produced exactly once.
+         * @param permutationKey the key that selects the order
+         * @return the Builder
+         */
+        public Builder setPermutationKey(long permutationKey)
+        {
+            this.permutationKey = permutationKey;
+            return this;
+        }
+
         /**
          * Checks if the given symbols list is empty or not,
          * and throws RuntimeException if it is empty.
@@ -155,18 +351,135 @@ public final class WordProducerManager
             }
         }
 
+        /**
+         * Checks that probability keyspaces are produced in ordered mode, and throws RuntimeException
+         * otherwise. Without ordered mode, each producer would get a contiguous band of probability
+         * and the queues would mix the most likely words with the least likely ones.
+         */
+        private void checkProbabilityKeyspaces()
+        {
+            if (ordered)
+            {
+                return;
+            }
+
+            for (Keyspace keyspace: keyspaces)
+            {
+                if (keyspace instanceof ProbabilityKeyspace)
+                {
+                    throw new RuntimeException("Probability keyspaces require ordered mode!");
+                }
+            }
+        }
+
         /**
          * Performs validation to check whether
          * it is safe to build and return the WordProducerManager.
          */
-        private void validate()
+        void validate()
         {
-            if (symbolMap.size() == 0)
+            if (symbolMap.size() == 0 && keyspaces.size() == 0)
+            {
+                throw new RuntimeException("No symbol or keyspace has been set so far!");
+            }
+
+            if (ordered && blockOutput)
+            {
+                throw new RuntimeException("Block output is not available in ordered mode!");
+            }
+
+            if (ordered && numberOfQueues > 1)
             {
-                throw new RuntimeException("No symbol has been set so far!");
+                throw new RuntimeException("Ordered mode produces into a single queue, number of queues must be 1!");
             }
         }
 
+        /**
+         * Builds the list of all keyspaces whose words are to be produced. Keyspaces defined
+         * by the symbol map come first in ascending order of length, reduced to the words not
+         * produced by the previous run if a previous symbol map has been set. All keyspaces are
+         * expanded by the mutation rules if any has been set.
+         * @return the list of all keyspaces whose words are to be produced
+         */
+        List<Keyspace> buildKeyspaces()
+        {
+            List<Keyspace> result = new ArrayList<>();
+            for (Map.Entry<Integer, List<String>> entry: new TreeMap<>(symbolMap).entrySet())
+            {
+                if (previousSymbolMap == null)
+                {
+                    result.add(new SymbolKeyspace(entry.getValue(), entry.getKey()));
+                }
+                else
+                {
+                    result.add(new DeltaKeyspace(
+                            previousSymbolMap.getOrDefault(entry.getKey(), Collections.<String>emptyList()),
+                            entry.getValue(), entry.getKey()));
+                }
+            }
+            result.addAll(keyspaces);
+            if (ruleSet != null)
+            {
+                for (int i = 0; i < result.size(); i++)
+                {
+                    result.set(i, new RuleKeyspace(result.get(i), ruleSet));
+                }
+            }
+            if (permutationKey != null)
+            {
+                for (int i = 0; i < result.size(); i++)
+                {
+                    result.set(i, new PermutedKeyspace(result.get(i), permutationKey + i));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Accessor method for numberOfQueues.
+         * @return the number of output queues to be used
+         */
+        int getNumberOfQueues()
+        {
+            return numberOfQueues;
+        }
+
+        /**
+         * Accessor method for chunkSize.
+         * @return the maximum number of words of a chunk
+         */
+        int getChunkSize()
+        {
+            return chunkSize;
+        }
+
+        /**
+         * Accessor method for queueFactory.
+         * @return the factory that creates the output queues
+         */
+        Supplier<BlockingQueue<String>> getQueueFactory()
+        {
+            return queueFactory;
+        }
+
+        /**
+         * Accessor method for ordered.
+         * @return whether the words are to be produced in global index order
+         */
+        boolean isOrdered()
+        {
+            return ordered;
+        }
+
+        /**
+         * Accessor method for blockOutput.
+         * @return whether the queues are to hold blocks of line-feed terminated words
+         */
+        boolean isBlockOutput()
+        {
+            return blockOutput;
+        }
+
         /**
          * Returns the WordProducerManager built by using the attributes
          * that have been set so far.
@@ -175,6 +488,7 @@ public final class WordProducerManager
         public WordProducerManager build()
         {
             validate();
+            checkProbabilityKeyspaces();
             return new WordProducerManager(this);
         }
     }
@@ -206,6 +520,78 @@ public final class WordProducerManager
         return symbolMap;
     }
 
+    /**
+     * Accessor method for keyspaces.
+     * @return the list of all keyspaces whose words are to be produced. Keyspaces defined
+     *         by the symbol map come first in ascending order of length.
+     */
+    public List<Keyspace> getKeyspaces()
+    {
+        return keyspaces;
+    }
+
+    /**
+     * Accessor method for queueFactory.
+     * @return the factory that creates the output queues
+     */
+    public Supplier<BlockingQueue<String>> getQueueFactory()
+    {
+        return queueFactory;
+    }
+
+    /**
+     * Accessor method for costModel.
+     * @return the cost model by which the words are distributed among producers
+     */
+    public CostModel getCostModel()
+    {
+        return costModel;
+    }
+
+    /**
+     * Accessor method for ordered.
+     * @return whether the words are produced in global index order into a single queue
+     */
+    public boolean isOrdered()
+    {
+        return ordered;
+    }
+
+    /**
+     * Accessor method for blockOutput.
+     * @return whether the queues hold blocks of line-feed terminated words instead of single words
+     */
+    public boolean isBlockOutput()
+    {
+        return blockOutput;
+    }
+
+    /**
+     * Creates the runnables that produce the words. In ordered mode, these are
+     * the chunk producers followed by the sequencer that releases the chunks in order.
+     * @return the list of runnables that produce the words
+     */
+    private List<Runnable> createProducers()
+    {
+        List<Runnable> producers = new ArrayList<>();
+        if (!ordered)
+        {
+            producers.addAll(wordDistributor.getWordProducers());
+            return producers;
+        }
+
+        int threadCount = numberOfQueues * threadsPerQueue;
+        ChunkDistributor chunkDistributor = new ChunkDistributor(keyspaces, chunkSize);
+        ChunkSequencer chunkSequencer = new ChunkSequencer(queues.get(0),
+                chunkDistributor.getChunkCount(), 2 * threadCount);
+        for (int i = 0; i < threadCount; i++)
+        {
+            producers.add(new ChunkProducer(chunkDistributor, chunkSequencer));
+        }
+        producers.add(chunkSequencer);
+        return producers;
+    }
+
     /**
      * Starts the producers and sets boolean completed variable to
      * true when all threads finish their tasks.
@@ -213,14 +599,21 @@ public final class WordProducerManager
     private void startProducers()
     {
 
-        List<WordProducer> wordProducers = wordDistributor.getWordProducers();
-        ExecutorService executorService = Executors.newFixedThreadPool(wordProducers.size());
-
-        for (WordProducer wordProducer: wordProducers)
+        List<Runnable> producers = createProducers();
+        ExecutorService executorService = Executors.newFixedThreadPool(producers.size());
+        synchronized (this)
         {
-            executorService.execute(wordProducer);
+            this.executorService = executorService;
+            for (Runnable producer: producers)
+            {
+                executorService.execute(producer);
+            }
+            executorService.shutdown();
+            if (stopped)
+            {
+                executorService.shutdownNow();
+            }
         }
-        executorService.shutdown();
         boolean terminated = false;
         do
         {
@@ -234,9 +627,10 @@ public final class WordProducerManager
             }
 
         } while(!terminated);
+        productionCompleted = !stopped;
 
         boolean wait = true;
-        while (wait)
+        while (wait && !stopped)
         {
             wait = false;
             for (BlockingQueue<String> queue: queues)
@@ -259,7 +653,24 @@ public final class WordProducerManager
 
         }
 
-        completed = true;
+        if (!stopped)
+        {
+            completed = true;
+        }
+    }
+
+    /**
+     * Stops the production before it has been completed. Producers waiting for space
+     * in the queues are interrupted and terminate; the words left in the queues are
+     * not taken into account and the process is never marked as completed.
+     */
+    public synchronized void stop()
+    {
+        stopped = true;
+        if (executorService != null)
+        {
+            executorService.shutdownNow();
+        }
     }
 
     /**
@@ -269,7 +680,15 @@ public final class WordProducerManager
      */
     public List<BlockingQueue<String>> produce()
     {
-        queues = wordDistributor.getQueues();
+        if (ordered)
+        {
+            queues = new ArrayList<>();
+            queues.add(queueFactory.get());
+        }
+        else
+        {
+            queues = wordDistributor.getQueues();
+        }
         Thread thread = new Thread(new Runnable() {
             @Override
             public void run()
@@ -281,6 +700,16 @@ public final class WordProducerManager
         return queues;
     }
 
+    /**
+     * Checks whether all producers have finished, so that no more words will be put
+     * into the queues. The queues may still hold words.
+     * @return whether all words have been put into the queues
+     */
+    public boolean isProductionCompleted()
+    {
+        return productionCompleted;
+    }
+
     /**
      * Accessor method for completed.
      * @return whether the overall process has been completed
@@ -0,0 +1,35 @@
+package enders.wordproducer.net;
+
+/**
+ * Constants of the word streaming protocol.
+ * <p>
+ * Every frame consists of the payload length (int), the frame type (byte) and the payload.
+ * All numbers are big-endian and words are UTF-8 encoded.
+ * <ul>
+ *     <li>HELLO (client): mode (byte) and queue index (int, ignored in lease mode)</li>
+ *     <li>CREDIT (client): number of additional words the client can take (int)</li>
+ *     <li>ACK (client): lease id (long) of a completely received and processed lease</li>
+ *     <li>WORDS (server): lease id (long, -1 in queue mode), whether it is the last frame of the
+ *     lease (byte), word count (int), then the byte length (int) and bytes of each word</li>
+ *     <li>END (server): no more words will be sent</li>
+ *     <li>ERROR (server): error message bytes; the connection is closed afterwards</li>
+ * </ul>
+ */
+final class StreamProtocol
+{
+    static final byte HELLO = 1;
+    static final byte CREDIT = 2;
+    static final byte ACK = 3;
+    static final byte WORDS = 16;
+    static final byte END = 17;
+    static final byte ERROR = 18;
+
+    static final byte MODE_QUEUE = 0;
+    static final byte MODE_LEASE = 1;
+
+    static final int MAX_CLIENT_FRAME_LENGTH = 1024;
+
+    private StreamProtocol()
+    {
+    }
+}
@@ -0,0 +1,169 @@
+package enders.wordproducer.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receives words from a WordStreamServer. The client grants the server credit for
+ * {@code <creditWindow>} words initially and renews the credit for every batch it takes,
+ * so at most {@code <creditWindow>} words are in flight at any time.
+ */
+public class WordStreamClient implements Closeable
+{
+    private final Socket socket;
+    private final DataInputStream inputStream;
+    private final DataOutputStream outputStream;
+    private int pendingCredit;
+    private long lastLeaseId;
+    private boolean lastLeaseComplete;
+    private boolean ended;
+
+    /**
+     * Constructor of WordStreamClient class. Connects to the server and
+     * takes words from the given output queue of the server's manager.
+     * @param address the address of the server
+     * @param queueIndex the index of the output queue to take words from
+     * @param creditWindow the maximum number of words in flight
+     * @throws IOException if the server cannot be reached
+     */
+    public WordStreamClient(InetSocketAddress address, int queueIndex, int creditWindow) throws IOException
+    {
+        this(address, StreamProtocol.MODE_QUEUE, queueIndex, creditWindow);
+    }
+
+    /**
+     * Constructor of WordStreamClient class. Connects to the server and
+     * takes words as leases, which must be acknowledged once processed.
+     * @param address the address of the server
+     * @param creditWindow the maximum number of words in flight
+     * @throws IOException if the server cannot be reached
+     */
+    public WordStreamClient(InetSocketAddress address, int creditWindow) throws IOException
+    {
+        this(address, StreamProtocol.MODE_LEASE, 0, creditWindow);
+    }
+
+    private WordStreamClient(InetSocketAddress address, byte mode, int queueIndex, int creditWindow) throws IOException
+    {
+        if (creditWindow <= 0)
+        {
+            throw new RuntimeException("Credit window must be positive!");
+        }
+
+        socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.connect(address);
+        inputStream = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+        outputStream = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        lastLeaseId = -1;
+
+        outputStream.writeInt(1 + Integer.BYTES);
+        outputStream.writeByte(StreamProtocol.HELLO);
+        outputStream.writeByte(mode);
+        outputStream.writeInt(queueIndex);
+        pendingCredit = creditWindow;
+    }
+
+    /**
+     * Returns the next batch of words sent by the server.
+     * @return the next batch of words, or null if the server will not send any more words
+     * @throws IOException if the server cannot be read or reports an error
+     */
+    public List<String> next() throws IOException
+    {
+        if (ended)
+        {
+            return null;
+        }
+
+        if (pendingCredit > 0)
+        {
+            outputStream.writeInt(Integer.BYTES);
+            outputStream.writeByte(StreamProtocol.CREDIT);
+            outputStream.writeInt(pendingCredit);
+            pendingCredit = 0;
+        }
+        outputStream.flush();
+
+        int length = inputStream.readInt();
+        byte type = inputStream.readByte();
+        if (type == StreamProtocol.END)
+        {
+            ended = true;
+            return null;
+        }
+
+        if (type == StreamProtocol.ERROR)
+        {
+            byte[] message = new byte[length];
+            inputStream.readFully(message);
+            ended = true;
+            throw new IOException(new String(message, StandardCharsets.UTF_8));
+        }
+
+        if (type != StreamProtocol.WORDS)
+        {
+            throw new IOException("Unknown frame type: " + type);
+        }
+
+        lastLeaseId = inputStream.readLong();
+        lastLeaseComplete = inputStream.readByte() != 0;
+        int wordCount = inputStream.readInt();
+        List<String> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++)
+        {
+            byte[] word = new byte[inputStream.readInt()];
+            inputStream.readFully(word);
+            words.add(new String(word, StandardCharsets.UTF_8));
+        }
+        pendingCredit = wordCount;
+        return words;
+    }
+
+    /**
+     * Accessor method for lastLeaseId.
+     * @return the id of the lease of the last batch, or -1 in queue mode
+     */
+    public long getLastLeaseId()
+    {
+        return lastLeaseId;
+    }
+
+    /**
+     * Checks whether the last batch is the final batch of its lease.
+     * @return whether the lease of the last batch has been received completely
+     */
+    public boolean isLastLeaseComplete()
+    {
+        return lastLeaseComplete;
+    }
+
+    /**
+     * Acknowledges that the words of the given lease have been processed, so that the
+     * server does not reissue the lease when this client disconnects.
+     * @param leaseId the id of the processed lease
+     * @throws IOException if the acknowledgement cannot be sent
+     */
+    public void acknowledge(long leaseId) throws IOException
+    {
+        outputStream.writeInt(Long.BYTES);
+        outputStream.writeByte(StreamProtocol.ACK);
+        outputStream.writeLong(leaseId);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        socket.close();
+    }
+}
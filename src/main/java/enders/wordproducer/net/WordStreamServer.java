@@ -0,0 +1,986 @@
+package enders.wordproducer.net;
+
+import enders.wordproducer.distributor.ChunkDistributor;
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.manager.WordProducerManager;
+import enders.wordproducer.producer.Chunk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams produced words to consumers in other processes over TCP.
+ * <p>
+ * In queue mode, a client is attached to one output queue of a WordProducerManager and receives
+ * the words taken from that queue. In lease mode, a client receives chunks of a keyspace on demand
+ * as leases; a lease the client has not acknowledged when it disconnects is reissued to another client.
+ * In both modes, the server sends no more words than the client has granted credit for, so the
+ * client's credit stands in for the capacity of the queue.
+ * <p>
+ * The server thread only performs I/O. Words are taken from the queues and leases are generated
+ * on worker threads, which hand the encoded frames back to the server thread.
+ */
+public class WordStreamServer implements Closeable, Runnable
+{
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+    private static final long MAX_CREDIT = Integer.MAX_VALUE;
+    private static final long QUEUE_WAIT_MILLIS = 100;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final WordProducerManager wordProducerManager;
+    private final ChunkDistributor chunkDistributor;
+    private final int batchSize;
+    private final long leaseTimeoutNanos;
+    private final ExecutorService leaseExecutor;
+    private final ExecutorService queueExecutor;
+    private final ConcurrentLinkedQueue<Runnable> completions;
+
+    private List<BlockingQueue<String>> queues;
+    private final ArrayDeque<Chunk> reissuedChunks;
+    private final HashMap<Long, Integer> chunkFailureCounts;
+    private final List<Chunk> failedChunks;
+    private boolean chunksExhausted;
+    private int outstandingLeaseCount;
+    private long nextLeaseId;
+    private volatile boolean leaseCompleted;
+    private volatile boolean closed;
+
+    private static final class Lease
+    {
+        private final long id;
+        private final Chunk chunk;
+        // created and advanced by one worker thread at a time
+        private Iterator<String> iterator;
+        private boolean started;
+
+        private Lease(long id, Chunk chunk)
+        {
+            this.id = id;
+            this.chunk = chunk;
+        }
+    }
+
+    private static final class Connection
+    {
+        private final SocketChannel channel;
+        private final ByteBuffer input;
+        private final ArrayDeque<ByteBuffer> outputs;
+        private byte mode = -1;
+        private int queueIndex;
+        private long credit;
+        private boolean ended;
+        private boolean closing;
+        private boolean disconnected;
+        private boolean fetching;
+        private long leaseDeadline;
+        private Lease currentLease;
+        private final HashMap<Long, Chunk> unacknowledgedChunks;
+
+        private Connection(SocketChannel channel)
+        {
+            this.channel = channel;
+            input = ByteBuffer.allocate(StreamProtocol.MAX_CLIENT_FRAME_LENGTH * 16);
+            outputs = new ArrayDeque<>();
+            unacknowledgedChunks = new HashMap<>();
+        }
+
+        /**
+         * Checks whether the client holds a lease that it has not acknowledged.
+         * @return whether the client holds a lease
+         */
+        private boolean holdsLease()
+        {
+            return currentLease != null || !unacknowledgedChunks.isEmpty();
+        }
+    }
+
+    /**
+     * Constructor of WordStreamServer class
+     * @param builder the Builder that builds WordStreamServer
+     * @throws IOException if the server socket cannot be opened or bound
+     */
+    private WordStreamServer(Builder builder) throws IOException
+    {
+        wordProducerManager = builder.wordProducerManager;
+        chunkDistributor = builder.leaseKeyspaces.isEmpty() ? null
+                : new ChunkDistributor(builder.leaseKeyspaces, builder.leaseSize);
+        batchSize = builder.batchSize;
+        leaseTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.leaseTimeoutMillis);
+        leaseExecutor = Executors.newFixedThreadPool(builder.leaseThreadCount);
+        queueExecutor = Executors.newCachedThreadPool();
+        completions = new ConcurrentLinkedQueue<>();
+        reissuedChunks = new ArrayDeque<>();
+        chunkFailureCounts = new HashMap<>();
+        failedChunks = new ArrayList<>();
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(builder.address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static final class Builder
+    {
+        private InetSocketAddress address;
+        private WordProducerManager wordProducerManager;
+        private List<Keyspace> leaseKeyspaces;
+        private int leaseSize;
+        private int batchSize;
+        private int leaseThreadCount;
+        private long leaseTimeoutMillis;
+
+        /**
+         * Constructor of Builder of WordStreamServer
+         */
+        public Builder()
+        {
+            address = new InetSocketAddress("127.0.0.1", 0);
+            leaseKeyspaces = new ArrayList<>();
+            leaseSize = 4096;
+            batchSize = 512;
+            leaseThreadCount = Runtime.getRuntime().availableProcessors();
+            leaseTimeoutMillis = 60000;
+        }
+
+        /**
+         * Sets the address the server listens on. By default, the server listens
+         * on a free port of the loopback interface.
+         * @param address the address the server listens on
+         * @return the Builder
+         */
+        public Builder setAddress(InetSocketAddress address)
+        {
+            this.address = address;
+            return this;
+        }
+
+        /**
+         * Sets the manager whose output queues are exposed to queue mode clients.
+         * Production starts when the server is started.
+         * @param wordProducerManager the manager whose output queues are exposed
+         * @return the Builder
+         */
+        public Builder setManager(WordProducerManager wordProducerManager)
+        {
+            this.wordProducerManager = wordProducerManager;
+            return this;
+        }
+
+        /**
+         * Adds the given keyspaces to the keyspaces handed out to lease mode clients.
+         * @param keyspaces the keyspaces whose words are handed out as leases
+         * @return the Builder
+         */
+        public Builder addLeaseKeyspaces(List<? extends Keyspace> keyspaces)
+        {
+            leaseKeyspaces.addAll(keyspaces);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of words of a lease.
+         * @param leaseSize the maximum number of words of a lease
+         * @return the Builder
+         */
+        public Builder setLeaseSize(int leaseSize)
+        {
+            if (leaseSize <= 0)
+            {
+                throw new RuntimeException("Lease size must be positive!");
+            }
+            this.leaseSize = leaseSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of words sent in a single frame.
+         * @param batchSize the maximum number of words sent in a single frame
+         * @return the Builder
+         */
+        public Builder setBatchSize(int batchSize)
+        {
+            if (batchSize <= 0)
+            {
+                throw new RuntimeException("Batch size must be positive!");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker threads that generate the words of leases.
+         * By default, as many threads as the number of logical cores are used.
+         * @param leaseThreadCount the number of worker threads that generate leases
+         * @return the Builder
+         */
+        public Builder setLeaseThreadCount(int leaseThreadCount)
+        {
+            if (leaseThreadCount <= 0)
+            {
+                throw new RuntimeException("Number of lease threads must be positive!");
+            }
+            this.leaseThreadCount = leaseThreadCount;
+            return this;
+        }
+
+        /**
+         * Sets the time a client may hold a lease without making progress, i.e. without receiving
+         * words of its current lease or acknowledging a lease. A client that exceeds it is
+         * disconnected and its leases are reissued. The default is 60 seconds.
+         * @param leaseTimeoutMillis the lease timeout in milliseconds
+         * @return the Builder
+         */
+        public Builder setLeaseTimeout(long leaseTimeoutMillis)
+        {
+            if (leaseTimeoutMillis <= 0)
+            {
+                throw new RuntimeException("Lease timeout must be positive!");
+            }
+            this.leaseTimeoutMillis = leaseTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * Returns the WordStreamServer built by using the attributes
+         * that have been set so far. The server socket is bound but no client is served
+         * until the server is started.
+         * @return the built WordStreamServer
+         * @throws IOException if the server socket cannot be opened or bound
+         */
+        public WordStreamServer build() throws IOException
+        {
+            if (wordProducerManager == null && leaseKeyspaces.isEmpty())
+            {
+                throw new RuntimeException("No manager or lease keyspace has been set so far!");
+            }
+            return new WordStreamServer(this);
+        }
+    }
+
+    /**
+     * Starts production, if a manager has been set, and serves clients on a new thread.
+     */
+    public void start()
+    {
+        if (wordProducerManager != null)
+        {
+            queues = wordProducerManager.produce();
+        }
+        new Thread(this, "WordStreamServer").start();
+    }
+
+    /**
+     * Returns the address the server listens on, which tells the port
+     * if the server has been bound to port 0.
+     * @return the address the server listens on
+     * @throws IOException if the address cannot be obtained
+     */
+    public InetSocketAddress getAddress() throws IOException
+    {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Serves clients until the server is closed. The server thread blocks until a client
+     * is ready, a worker thread hands back a frame or the earliest lease deadline passes.
+     */
+    @Override
+    public void run()
+    {
+        try
+        {
+            while (!closed)
+            {
+                selector.select(millisUntilNextLeaseDeadline());
+                runCompletions();
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext())
+                {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (!key.isValid())
+                    {
+                        continue;
+                    }
+
+                    if (key.isAcceptable())
+                    {
+                        accept();
+                        continue;
+                    }
+
+                    Connection connection = (Connection) key.attachment();
+                    try
+                    {
+                        if (key.isReadable())
+                        {
+                            read(connection);
+                        }
+
+                        if (key.isValid() && key.isWritable())
+                        {
+                            write(connection);
+                        }
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        disconnect(connection);
+                    }
+                }
+
+                long now = System.nanoTime();
+                for (SelectionKey key: selector.keys())
+                {
+                    if (key.isValid() && key.attachment() != null)
+                    {
+                        Connection connection = (Connection) key.attachment();
+                        if (isLeaseExpired(connection, now))
+                        {
+                            disconnect(connection);
+                            continue;
+                        }
+
+                        try
+                        {
+                            pump(connection);
+                        }
+                        catch (IOException | RuntimeException e)
+                        {
+                            disconnect(connection);
+                        }
+                    }
+                }
+                leaseCompleted = chunkDistributor != null && checkLeaseCompleted();
+            }
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+        finally
+        {
+            for (SelectionKey key: selector.keys())
+            {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException
+    {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+        {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+    }
+
+    /**
+     * Checks whether the given client has held a lease longer than the lease timeout
+     * without making progress. A client is not blamed while its words are being generated.
+     * @param connection the connection of the client
+     * @param now the current value of {@code System.nanoTime()}
+     * @return whether the leases of the client have expired
+     */
+    private boolean isLeaseExpired(Connection connection, long now)
+    {
+        return connection.holdsLease() && !connection.fetching && now - connection.leaseDeadline > 0;
+    }
+
+    /**
+     * Calculates how long the server thread may block before a lease expires.
+     * @return the time until the earliest lease deadline in milliseconds (at least 1),
+     *         or 0 if no client holds a lease, which blocks until a client or a worker is ready
+     */
+    private long millisUntilNextLeaseDeadline()
+    {
+        long now = System.nanoTime();
+        long result = 0;
+        for (SelectionKey key: selector.keys())
+        {
+            if (key.isValid() && key.attachment() != null)
+            {
+                Connection connection = (Connection) key.attachment();
+                if (connection.holdsLease() && !connection.fetching)
+                {
+                    long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(connection.leaseDeadline - now) + 1);
+                    result = result == 0 ? millis : Math.min(result, millis);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the available bytes of the client and handles the complete frames among them.
+     * @param connection the connection of the client
+     * @throws IOException if the client cannot be read or disconnects
+     */
+    private void read(Connection connection) throws IOException
+    {
+        if (connection.channel.read(connection.input) < 0)
+        {
+            throw new IOException("Client disconnected");
+        }
+
+        connection.input.flip();
+        while (!connection.closing && connection.input.remaining() >= Integer.BYTES + 1)
+        {
+            int length = connection.input.getInt(connection.input.position());
+            if (length < 0 || length > StreamProtocol.MAX_CLIENT_FRAME_LENGTH)
+            {
+                throw new IOException("Invalid frame length: " + length);
+            }
+
+            if (connection.input.remaining() < Integer.BYTES + 1 + length)
+            {
+                break;
+            }
+            connection.input.getInt();
+            byte type = connection.input.get();
+            ByteBuffer payload = connection.input.slice();
+            payload.limit(length);
+            connection.input.position(connection.input.position() + length);
+            handle(connection, type, payload);
+        }
+        connection.input.compact();
+    }
+
+    /**
+     * Handles a frame received from the client.
+     * @param connection the connection of the client
+     * @param type the type of the frame
+     * @param payload the payload of the frame
+     * @throws IOException if the frame is invalid
+     */
+    private void handle(Connection connection, byte type, ByteBuffer payload) throws IOException
+    {
+        if (type == StreamProtocol.HELLO)
+        {
+            byte mode = payload.get();
+            int queueIndex = payload.getInt();
+            if (connection.mode >= 0)
+            {
+                sendError(connection, "Repeated HELLO");
+                return;
+            }
+
+            if (mode == StreamProtocol.MODE_QUEUE && (queues == null || queueIndex < 0 || queueIndex >= queues.size()))
+            {
+                sendError(connection, "No such queue: " + queueIndex);
+                return;
+            }
+
+            if (mode == StreamProtocol.MODE_LEASE && chunkDistributor == null)
+            {
+                sendError(connection, "Lease mode is not served");
+                return;
+            }
+
+            if (mode != StreamProtocol.MODE_QUEUE && mode != StreamProtocol.MODE_LEASE)
+            {
+                sendError(connection, "Unknown mode: " + mode);
+                return;
+            }
+            connection.mode = mode;
+            connection.queueIndex = queueIndex;
+        }
+        else if (type == StreamProtocol.CREDIT)
+        {
+            int credit = payload.getInt();
+            if (credit <= 0)
+            {
+                sendError(connection, "Invalid credit: " + credit);
+                return;
+            }
+            connection.credit = Math.min(connection.credit + credit, MAX_CREDIT);
+        }
+        else if (type == StreamProtocol.ACK)
+        {
+            if (connection.unacknowledgedChunks.remove(payload.getLong()) != null)
+            {
+                outstandingLeaseCount--;
+                connection.leaseDeadline = System.nanoTime() + leaseTimeoutNanos;
+            }
+        }
+        else
+        {
+            throw new IOException("Unknown frame type: " + type);
+        }
+    }
+
+    /**
+     * Starts fetching as many words as the credit of the client allows on a worker thread,
+     * unless a fetch is in flight or more than one frame is waiting to be written.
+     * @param connection the connection of the client
+     * @throws IOException if the end of the stream cannot be sent
+     */
+    private void pump(Connection connection) throws IOException
+    {
+        if (connection.fetching || connection.outputs.size() > 1 || connection.ended || connection.closing
+                || connection.mode < 0 || connection.credit <= 0)
+        {
+            return;
+        }
+
+        int maxWordCount = (int) Math.min(connection.credit, batchSize);
+        if (connection.mode == StreamProtocol.MODE_QUEUE)
+        {
+            fetchFromQueue(connection, maxWordCount);
+            return;
+        }
+
+        if (connection.currentLease == null)
+        {
+            Chunk chunk = takeChunk();
+            if (chunk == null)
+            {
+                if (checkLeaseCompleted())
+                {
+                    leaseCompleted = true;
+                    sendEnd(connection);
+                }
+                return;
+            }
+            connection.currentLease = new Lease(nextLeaseId++, chunk);
+            connection.leaseDeadline = System.nanoTime() + leaseTimeoutNanos;
+            outstandingLeaseCount++;
+        }
+        fetchFromLease(connection, connection.currentLease, maxWordCount);
+    }
+
+    /**
+     * Takes up to the given number of words from the queue of the client on a worker thread.
+     * The worker waits for words for a while, so that the end of production is noticed
+     * without the server thread polling the queue.
+     * @param connection the connection of the client
+     * @param maxWordCount the maximum number of words to be taken
+     */
+    private void fetchFromQueue(Connection connection, int maxWordCount)
+    {
+        BlockingQueue<String> queue = queues.get(connection.queueIndex);
+        connection.fetching = true;
+        queueExecutor.execute(() ->
+        {
+            List<String> words = new ArrayList<>();
+            boolean end = false;
+            try
+            {
+                String word = queue.poll(QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (word != null)
+                {
+                    words.add(word);
+                    queue.drainTo(words, maxWordCount - 1);
+                }
+                else
+                {
+                    end = wordProducerManager.isProductionCompleted() && queue.isEmpty();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                // interrupted by close
+                return;
+            }
+
+            ByteBuffer frame = words.isEmpty() ? null : createWordsFrame(-1, false, words);
+            boolean ended = end;
+            complete(() -> completeQueueFetch(connection, queue, words, frame, ended));
+        });
+    }
+
+    /**
+     * Sends the words taken from the queue of the client, or the end of the stream.
+     * Words taken for a client that has gone in the meantime are put back into the queue.
+     * Must be called from the server thread.
+     * @param connection the connection of the client
+     * @param queue the queue the words have been taken from
+     * @param words the words taken from the queue
+     * @param frame the encoded words, or null if no word has been taken
+     * @param end whether the queue is empty and its producers have finished
+     */
+    private void completeQueueFetch(Connection connection, BlockingQueue<String> queue, List<String> words,
+                                    ByteBuffer frame, boolean end)
+    {
+        connection.fetching = false;
+        if (connection.disconnected || connection.closing)
+        {
+            for (String word: words)
+            {
+                queue.offer(word);
+            }
+            return;
+        }
+
+        try
+        {
+            if (frame != null)
+            {
+                send(connection, frame);
+            }
+            else if (end)
+            {
+                sendEnd(connection);
+            }
+        }
+        catch (IOException e)
+        {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Generates up to the given number of words of the given lease on a worker thread.
+     * @param connection the connection of the client
+     * @param lease the lease whose words are generated
+     * @param maxWordCount the maximum number of words to be generated
+     */
+    private void fetchFromLease(Connection connection, Lease lease, int maxWordCount)
+    {
+        connection.fetching = true;
+        leaseExecutor.execute(() ->
+        {
+            try
+            {
+                if (lease.iterator == null)
+                {
+                    lease.iterator = lease.chunk.createGenerator().iterator();
+                }
+
+                List<String> words = new ArrayList<>();
+                while (words.size() < maxWordCount && lease.iterator.hasNext())
+                {
+                    words.add(lease.iterator.next());
+                }
+                boolean last = !lease.iterator.hasNext();
+                ByteBuffer frame = createWordsFrame(lease.id, last, words);
+                complete(() -> completeLeaseFetch(connection, lease, frame, last));
+            }
+            catch (RuntimeException e)
+            {
+                e.printStackTrace();
+                complete(() -> failLeaseFetch(connection, lease));
+            }
+        });
+    }
+
+    /**
+     * Sends the generated words of the given lease. A lease that has been reissued because
+     * its client has gone in the meantime is dropped. Must be called from the server thread.
+     * @param connection the connection of the client
+     * @param lease the lease whose words have been generated
+     * @param frame the encoded words
+     * @param last whether the frame completes the lease
+     */
+    private void completeLeaseFetch(Connection connection, Lease lease, ByteBuffer frame, boolean last)
+    {
+        connection.fetching = false;
+        if (connection.disconnected || connection.closing || connection.currentLease != lease)
+        {
+            return;
+        }
+
+        lease.started = true;
+        connection.leaseDeadline = System.nanoTime() + leaseTimeoutNanos;
+        if (last)
+        {
+            connection.unacknowledgedChunks.put(lease.id, lease.chunk);
+            connection.currentLease = null;
+        }
+
+        try
+        {
+            send(connection, frame);
+        }
+        catch (IOException e)
+        {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Counts a failed attempt to generate the given lease. A client that has received part of
+     * the lease is disconnected like a failed client. Must be called from the server thread.
+     * @param connection the connection of the client
+     * @param lease the lease whose generator has failed
+     */
+    private void failLeaseFetch(Connection connection, Lease lease)
+    {
+        connection.fetching = false;
+        if (connection.disconnected || connection.currentLease != lease)
+        {
+            return;
+        }
+
+        connection.currentLease = null;
+        outstandingLeaseCount--;
+        recordChunkFailure(lease.chunk);
+        if (lease.started)
+        {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Hands the given action over to the server thread and wakes it.
+     * @param action the action to be run on the server thread
+     */
+    private void complete(Runnable action)
+    {
+        completions.add(action);
+        selector.wakeup();
+    }
+
+    /**
+     * Runs the actions handed over by the worker threads.
+     */
+    private void runCompletions()
+    {
+        Runnable action;
+        while ((action = completions.poll()) != null)
+        {
+            action.run();
+        }
+    }
+
+    /**
+     * Takes the next chunk to be leased, preferring the chunks of disconnected clients.
+     * @return the next chunk to be leased, or null if none is available right now
+     */
+    private Chunk takeChunk()
+    {
+        if (!reissuedChunks.isEmpty())
+        {
+            return reissuedChunks.poll();
+        }
+
+        if (chunksExhausted)
+        {
+            return null;
+        }
+
+        Chunk chunk = chunkDistributor.next();
+        chunksExhausted = chunk == null;
+        return chunk;
+    }
+
+    /**
+     * Counts a failed attempt to produce the given chunk and reissues it, or gives it up
+     * after {@code MAX_LEASE_ATTEMPTS} failed attempts.
+     * @param chunk the chunk whose generator has failed
+     */
+    private void recordChunkFailure(Chunk chunk)
+    {
+        int failureCount = chunkFailureCounts.merge(chunk.getNumber(), 1, Integer::sum);
+        if (failureCount < MAX_LEASE_ATTEMPTS)
+        {
+            reissuedChunks.add(chunk);
+        }
+        else
+        {
+            chunkFailureCounts.remove(chunk.getNumber());
+            synchronized (failedChunks)
+            {
+                failedChunks.add(chunk);
+            }
+        }
+    }
+
+    /**
+     * Checks whether all leases have been handed out and acknowledged or given up.
+     * Must be called from the server thread.
+     * @return whether lease mode has been completed
+     */
+    private boolean checkLeaseCompleted()
+    {
+        return chunksExhausted && reissuedChunks.isEmpty() && outstandingLeaseCount == 0;
+    }
+
+    /**
+     * Checks whether all leases have been handed out and acknowledged or given up.
+     * The state is refreshed by the server thread on every round of serving clients.
+     * @return whether lease mode has been completed
+     */
+    public boolean isLeaseCompleted()
+    {
+        return leaseCompleted;
+    }
+
+    /**
+     * Returns the chunks that have been given up because their generators failed
+     * {@code MAX_LEASE_ATTEMPTS} times. Their words have not been streamed.
+     * @return a copy of the list of given up chunks
+     */
+    public List<Chunk> getFailedChunks()
+    {
+        synchronized (failedChunks)
+        {
+            return new ArrayList<>(failedChunks);
+        }
+    }
+
+    private ByteBuffer createWordsFrame(long leaseId, boolean last, List<String> words)
+    {
+        byte[][] encodedWords = new byte[words.size()][];
+        int length = Long.BYTES + 1 + Integer.BYTES;
+        for (int i = 0; i < encodedWords.length; i++)
+        {
+            encodedWords[i] = words.get(i).getBytes(StandardCharsets.UTF_8);
+            length += Integer.BYTES + encodedWords[i].length;
+        }
+
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1 + length);
+        frame.putInt(length).put(StreamProtocol.WORDS).putLong(leaseId).put((byte) (last ? 1 : 0))
+                .putInt(encodedWords.length);
+        for (byte[] encodedWord: encodedWords)
+        {
+            frame.putInt(encodedWord.length).put(encodedWord);
+        }
+        frame.flip();
+        return frame;
+    }
+
+    private void sendEnd(Connection connection) throws IOException
+    {
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1);
+        frame.putInt(0).put(StreamProtocol.END).flip();
+        connection.ended = true;
+        send(connection, frame);
+    }
+
+    private void sendError(Connection connection, String message) throws IOException
+    {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1 + bytes.length);
+        frame.putInt(bytes.length).put(StreamProtocol.ERROR).put(bytes).flip();
+        connection.closing = true;
+        send(connection, frame);
+    }
+
+    /**
+     * Queues the given frame behind the frames that have not been written yet,
+     * and writes as much as the client takes at once.
+     * @param connection the connection of the client
+     * @param frame the frame to be written
+     * @throws IOException if the frame cannot be written
+     */
+    private void send(Connection connection, ByteBuffer frame) throws IOException
+    {
+        if (frame.get(Integer.BYTES) == StreamProtocol.WORDS)
+        {
+            connection.credit -= frame.getInt(Integer.BYTES + 1 + Long.BYTES + 1);
+        }
+        connection.outputs.add(frame);
+        if (connection.outputs.size() == 1)
+        {
+            write(connection);
+        }
+    }
+
+    /**
+     * Writes the queued frames in order until the client takes no more bytes,
+     * continuing when the client becomes writable. The connection is closed once
+     * all frames have been written if an error has been sent.
+     * @param connection the connection of the client
+     * @throws IOException if the frames cannot be written
+     */
+    private void write(Connection connection) throws IOException
+    {
+        SelectionKey key = connection.channel.keyFor(selector);
+        while (!connection.outputs.isEmpty())
+        {
+            ByteBuffer output = connection.outputs.peek();
+            connection.channel.write(output);
+            if (output.hasRemaining())
+            {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                return;
+            }
+            connection.outputs.poll();
+        }
+
+        key.interestOps(SelectionKey.OP_READ);
+        if (connection.closing)
+        {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Closes the connection of the client and reissues its unacknowledged leases.
+     * @param connection the connection of the client
+     */
+    private void disconnect(Connection connection)
+    {
+        if (connection.disconnected)
+        {
+            return;
+        }
+        connection.disconnected = true;
+
+        if (connection.currentLease != null)
+        {
+            reissuedChunks.add(connection.currentLease.chunk);
+            outstandingLeaseCount--;
+            connection.currentLease = null;
+        }
+
+        for (Chunk chunk: connection.unacknowledgedChunks.values())
+        {
+            reissuedChunks.add(chunk);
+            outstandingLeaseCount--;
+        }
+        connection.unacknowledgedChunks.clear();
+        connection.outputs.clear();
+        closeQuietly(connection.channel);
+    }
+
+    private static void closeQuietly(Closeable closeable)
+    {
+        try
+        {
+            closeable.close();
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops serving clients and closes all connections.
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closed = true;
+        selector.wakeup();
+        serverChannel.close();
+        leaseExecutor.shutdownNow();
+        queueExecutor.shutdownNow();
+    }
+}
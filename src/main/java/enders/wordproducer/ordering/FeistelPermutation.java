@@ -0,0 +1,190 @@
+package enders.wordproducer.ordering;
+
+import java.math.BigInteger;
+
+/**
+ * A keyed bijection over the integers between 0 and {@code domainSize - 1} (both inclusive).
+ * <p>
+ * A balanced Feistel network permutes the smallest even number of bits that covers the domain,
+ * and values falling outside the domain are permuted again until they fall inside it (cycle walking).
+ * Since the permuted range is less than four times the domain, few iterations are needed on average.
+ * The permutation scatters indices; it is not meant to be cryptographically secure.
+ */
+public class FeistelPermutation
+{
+    private static final int ROUND_COUNT = 6;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final BigInteger domainSize;
+    private final int halfBits;
+    private final long[] roundKeys;
+    private final long domainSizeLong;
+    private final long halfMask;
+    private final BigInteger halfMaskBig;
+
+    /**
+     * Constructor of FeistelPermutation class
+     * @param domainSize the number of integers permuted
+     * @param key the key that selects the permutation
+     */
+    public FeistelPermutation(BigInteger domainSize, long key)
+    {
+        if (domainSize.signum() <= 0)
+        {
+            throw new RuntimeException("Domain size must be positive!");
+        }
+
+        this.domainSize = domainSize;
+        int bits = Math.max(2, domainSize.subtract(BigInteger.ONE).bitLength());
+        halfBits = (bits + 1) / 2;
+        halfMaskBig = BigInteger.ONE.shiftLeft(halfBits).subtract(BigInteger.ONE);
+        if (isLong())
+        {
+            domainSizeLong = domainSize.longValue();
+            halfMask = (1L << halfBits) - 1;
+        }
+        else
+        {
+            domainSizeLong = -1;
+            halfMask = -1;
+        }
+
+        roundKeys = new long[ROUND_COUNT];
+        long state = key;
+        for (int i = 0; i < ROUND_COUNT; i++)
+        {
+            state += GOLDEN_GAMMA;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    /**
+     * Checks whether the permuted values fit into a long,
+     * in which case {@link #permute(long)} can be used.
+     * @return whether the permuted values fit into a long
+     */
+    public boolean isLong()
+    {
+        return 2 * halfBits <= 62;
+    }
+
+    /**
+     * Accessor method for domainSize.
+     * @return the number of integers permuted
+     */
+    public BigInteger getDomainSize()
+    {
+        return domainSize;
+    }
+
+    /**
+     * Returns the image of the given value under the permutation.
+     * @param value a value between 0 and {@code domainSize - 1} (both inclusive)
+     * @return the image of the given value
+     */
+    public BigInteger permute(BigInteger value)
+    {
+        if (value.signum() < 0 || value.compareTo(domainSize) >= 0)
+        {
+            throw new RuntimeException(String.format("Value is out of the domain!: %d", value));
+        }
+
+        if (isLong())
+        {
+            return BigInteger.valueOf(permute(value.longValue()));
+        }
+
+        do
+        {
+            value = encrypt(value);
+        }
+        while (value.compareTo(domainSize) >= 0);
+        return value;
+    }
+
+    /**
+     * Returns the image of the given value under the permutation.
+     * May only be used if {@link #isLong()} returns true.
+     * @param value a value between 0 and {@code domainSize - 1} (both inclusive)
+     * @return the image of the given value
+     */
+    public long permute(long value)
+    {
+        if (value < 0 || value >= domainSizeLong)
+        {
+            throw new RuntimeException(String.format("Value is out of the domain!: %d", value));
+        }
+
+        do
+        {
+            value = encrypt(value);
+        }
+        while (value >= domainSizeLong);
+        return value;
+    }
+
+    private long encrypt(long value)
+    {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey: roundKeys)
+        {
+            long newRight = left ^ (mix(right ^ roundKey) & halfMask);
+            left = right;
+            right = newRight;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private BigInteger encrypt(BigInteger value)
+    {
+        BigInteger left = value.shiftRight(halfBits);
+        BigInteger right = value.and(halfMaskBig);
+        for (long roundKey: roundKeys)
+        {
+            BigInteger newRight = left.xor(round(right, roundKey));
+            left = right;
+            right = newRight;
+        }
+        return left.shiftLeft(halfBits).or(right);
+    }
+
+    /**
+     * Computes the round function for halves that do not fit into a long, by hashing the half
+     * into a seed and expanding the seed into {@code halfBits} bits.
+     * @param half the half to be hashed
+     * @param roundKey the key of the round
+     * @return a value of {@code halfBits} bits determined by the half and the round key
+     */
+    private BigInteger round(BigInteger half, long roundKey)
+    {
+        long seed = roundKey;
+        for (int shift = 0; shift < halfBits; shift += 64)
+        {
+            seed = mix(seed ^ half.shiftRight(shift).longValue());
+        }
+
+        byte[] bytes = new byte[(halfBits + 7) / 8 + 8];
+        for (int i = 0; i < bytes.length; i += 8)
+        {
+            long word = mix(seed + (i / 8 + 1) * GOLDEN_GAMMA);
+            for (int j = 0; j < 8 && i + j < bytes.length; j++)
+            {
+                bytes[i + j] = (byte) (word >>> (8 * j));
+            }
+        }
+        return new BigInteger(1, bytes).and(halfMaskBig);
+    }
+
+    /**
+     * Mixes the bits of the given value (the finalizer of SplitMix64).
+     * @param value the value to be mixed
+     * @return the mixed value
+     */
+    private static long mix(long value)
+    {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
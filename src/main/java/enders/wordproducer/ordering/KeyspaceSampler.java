@@ -0,0 +1,111 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Draws words uniformly at random from a list of keyspaces without enumerating them.
+ * Every word of every keyspace is equally likely, so keyspaces are chosen in proportion
+ * to their word counts. Words are drawn with replacement.
+ */
+public class KeyspaceSampler
+{
+    private final List<DistributableGenerator> generators;
+    private final BigInteger[] offsets;
+    private final BigInteger totalCount;
+    private final Random random;
+
+    /**
+     * Constructor of KeyspaceSampler class
+     * @param keyspaces the keyspaces whose words are sampled
+     * @param random the source of randomness
+     */
+    public KeyspaceSampler(List<? extends Keyspace> keyspaces, Random random)
+    {
+        this.random = random;
+        generators = new ArrayList<>();
+        offsets = new BigInteger[keyspaces.size() + 1];
+        offsets[0] = BigInteger.ZERO;
+        for (int i = 0; i < keyspaces.size(); i++)
+        {
+            BigInteger count = keyspaces.get(i).getCount();
+            generators.add(keyspaces.get(i).createGenerator(BigInteger.ZERO, count.subtract(BigInteger.ONE)));
+            offsets[i + 1] = offsets[i].add(count);
+        }
+        totalCount = offsets[keyspaces.size()];
+
+        if (totalCount.signum() <= 0)
+        {
+            throw new RuntimeException("No word to sample from!");
+        }
+    }
+
+    /**
+     * Accessor method for totalCount.
+     * @return the number of words sampled from
+     */
+    public BigInteger getTotalCount()
+    {
+        return totalCount;
+    }
+
+    /**
+     * Draws a single word uniformly at random.
+     * @return the drawn word
+     */
+    public String next()
+    {
+        BigInteger index;
+        do
+        {
+            index = new BigInteger(totalCount.bitLength(), random);
+        }
+        while (index.compareTo(totalCount) >= 0);
+        return wordAt(index);
+    }
+
+    /**
+     * Draws the given number of words uniformly at random.
+     * @param count the number of words to be drawn
+     * @return the list of the drawn words
+     */
+    public List<String> sample(int count)
+    {
+        List<String> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            result.add(next());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the word mapped by the given index, where the keyspaces are indexed
+     * one after another in the given order.
+     * @param index the index that refers to the target word
+     * @return the word referred to by the given index
+     */
+    public String wordAt(BigInteger index)
+    {
+        int low = 0;
+        int high = generators.size() - 1;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (offsets[middle].compareTo(index) <= 0)
+            {
+                low = middle;
+            }
+            else
+            {
+                high = middle - 1;
+            }
+        }
+        return generators.get(low).wordAt(index.subtract(offsets[low]));
+    }
+}
@@ -0,0 +1,225 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.io.MappedWordlist;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class MarkovModel
+{
+    /**
+     * Defines what the probability of a symbol depends on.
+     */
+    public enum Mode
+    {
+        /**
+         * The probability of a symbol depends on its position in the word.
+         */
+        POSITIONAL,
+        /**
+         * The probability of a symbol depends on the previous symbol in the word.
+         */
+        TRANSITION
+    }
+
+    private static final int MAX_POSITIONS = 64;
+
+    private final List<String> symbols;
+    private final Mode mode;
+    private final int maxCost;
+    private final long[] startCounts;
+    private final long[][] transitionCounts;
+    private final long[][] positionCounts;
+
+    /**
+     * Constructor of MarkovModel class
+     * @param symbols the symbol list of the words to be produced
+     * @param mode what the probability of a symbol depends on
+     * @param maxCost the largest cost of a symbol; less likely symbols share this cost
+     */
+    private MarkovModel(List<String> symbols, Mode mode, int maxCost)
+    {
+        this.symbols = symbols;
+        this.mode = mode;
+        this.maxCost = maxCost;
+        startCounts = new long[symbols.size()];
+        transitionCounts = new long[symbols.size()][symbols.size()];
+        positionCounts = new long[MAX_POSITIONS][symbols.size()];
+    }
+
+    /**
+     * Learns symbol frequencies from the given training words. Each word is split into
+     * symbols by taking the longest matching symbol at each position; a character that does
+     * not start any symbol breaks the word into separately counted parts.
+     * @param trainingWords the training words, e.g. a {@code MappedWordlist} of known passwords
+     * @param symbols the symbol list of the words to be produced
+     * @param mode what the probability of a symbol depends on
+     * @param maxCost the largest cost of a symbol, where the cost of a symbol is the number of
+     *                bits by which it is less likely than the most likely symbol in its context.
+     *                Less likely symbols share this cost.
+     * @return the trained model
+     */
+    public static MarkovModel train(List<String> trainingWords, List<String> symbols, Mode mode, int maxCost)
+    {
+        if (symbols.size() == 0)
+        {
+            throw new RuntimeException("Symbols list cannot be empty!");
+        }
+
+        if (maxCost <= 0)
+        {
+            throw new RuntimeException("Maximum cost must be positive!");
+        }
+
+        MarkovModel model = new MarkovModel(symbols, mode, maxCost);
+        for (String word: trainingWords)
+        {
+            model.count(word);
+        }
+        return model;
+    }
+
+    /**
+     * Learns symbol frequencies from the given wordlist file with a maximum cost of 15.
+     * @param trainingWordlist the path of the UTF-8 encoded wordlist file with one word per line
+     * @param symbols the symbol list of the words to be produced
+     * @param mode what the probability of a symbol depends on
+     * @return the trained model
+     * @throws IOException if the wordlist cannot be read
+     */
+    public static MarkovModel train(Path trainingWordlist, List<String> symbols, Mode mode) throws IOException
+    {
+        try (MappedWordlist wordlist = new MappedWordlist(trainingWordlist))
+        {
+            return train(wordlist, symbols, mode, 15);
+        }
+    }
+
+    /**
+     * Counts the symbols of the given training word.
+     * @param word the training word
+     */
+    private void count(String word)
+    {
+        int position = 0;
+        int previous = -1;
+        int index = 0;
+        while (index < word.length())
+        {
+            int symbol = -1;
+            for (int i = 0; i < symbols.size(); i++)
+            {
+                String candidate = symbols.get(i);
+                if (!candidate.isEmpty() && word.startsWith(candidate, index) &&
+                        (symbol < 0 || candidate.length() > symbols.get(symbol).length()))
+                {
+                    symbol = i;
+                }
+            }
+
+            if (symbol < 0)
+            {
+                index++;
+                position = 0;
+                previous = -1;
+                continue;
+            }
+
+            if (previous < 0)
+            {
+                startCounts[symbol]++;
+            }
+            else
+            {
+                transitionCounts[previous][symbol]++;
+            }
+            positionCounts[Math.min(position, MAX_POSITIONS - 1)][symbol]++;
+
+            index += symbols.get(symbol).length();
+            position++;
+            previous = symbol;
+        }
+    }
+
+    /**
+     * Calculates the cost of each symbol in each context for words of the given length.
+     * Counts are smoothed by adding one, so every symbol has a finite cost.
+     * @param length the number of symbols found in each word
+     * @return an array where {@code [p][q][s]} is the cost of symbol {@code s} at position {@code p}
+     *         following symbol {@code q}; at position 0 there is a single context
+     */
+    int[][][] createCosts(int length)
+    {
+        int base = symbols.size();
+        int[][][] costs = new int[length][][];
+        for (int position = 0; position < length; position++)
+        {
+            int contextCount = position == 0 || mode == Mode.POSITIONAL ? 1 : base;
+            costs[position] = new int[contextCount][];
+            for (int context = 0; context < contextCount; context++)
+            {
+                long[] counts;
+                if (mode == Mode.POSITIONAL)
+                {
+                    counts = positionCounts[Math.min(position, MAX_POSITIONS - 1)];
+                }
+                else
+                {
+                    counts = position == 0 ? startCounts : transitionCounts[context];
+                }
+                costs[position][context] = toCosts(counts);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Converts the given symbol counts to costs relative to the most frequent symbol.
+     * @param counts the count of each symbol
+     * @return the cost of each symbol
+     */
+    private int[] toCosts(long[] counts)
+    {
+        long maxCount = 0;
+        for (long count: counts)
+        {
+            maxCount = Math.max(maxCount, count);
+        }
+
+        int[] result = new int[counts.length];
+        for (int i = 0; i < counts.length; i++)
+        {
+            double bits = Math.log((maxCount + 1.0) / (counts[i] + 1.0)) / Math.log(2);
+            result[i] = (int) Math.min(maxCost, Math.round(bits));
+        }
+        return result;
+    }
+
+    /**
+     * Accessor method for symbols.
+     * @return the symbol list of the words to be produced
+     */
+    public List<String> getSymbols()
+    {
+        return symbols;
+    }
+
+    /**
+     * Accessor method for mode.
+     * @return what the probability of a symbol depends on
+     */
+    public Mode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * Accessor method for maxCost.
+     * @return the largest cost of a symbol
+     */
+    public int getMaxCost()
+    {
+        return maxCost;
+    }
+}
@@ -0,0 +1,79 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.generator.DistributableGenerator;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Iterator;
+
+public class PermutedGenerator extends DistributableGenerator
+{
+    private final FeistelPermutation permutation;
+    private final DistributableGenerator baseGenerator;
+
+    /**
+     * Constructor of PermutedGenerator class
+     * @param keyspace the keyspace whose words are produced in a scattered order
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     */
+    public PermutedGenerator(PermutedKeyspace keyspace, BigInteger lowerBound, BigInteger upperBound)
+    {
+        super(Collections.<String>emptyList(), lowerBound, upperBound, keyspace.getLength());
+        this.permutation = keyspace.getPermutation();
+        this.baseGenerator = permutation == null ? null : keyspace.getBaseKeyspace()
+                .createGenerator(BigInteger.ZERO, keyspace.getCount().subtract(BigInteger.ONE));
+    }
+
+    protected class PermutedGeneratorIterator extends DistributableGeneratorIterator
+    {
+        private long currentLongIndex;
+        private final long upperLongBound;
+
+        public PermutedGeneratorIterator()
+        {
+            boolean isLong = permutation != null && permutation.isLong();
+            currentLongIndex = isLong ? currentIndex.longValue() : -1;
+            upperLongBound = isLong ? upperBound.longValue() : -1;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (currentLongIndex >= 0)
+            {
+                return currentLongIndex <= upperLongBound;
+            }
+            return super.hasNext();
+        }
+
+        @Override
+        public String next()
+        {
+            if (currentLongIndex >= 0)
+            {
+                String result = baseGenerator.wordAt(BigInteger.valueOf(permutation.permute(currentLongIndex)));
+                currentLongIndex++;
+                return result;
+            }
+
+            String result = generateWord(currentIndex);
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return result;
+        }
+    }
+
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        return baseGenerator.wordAt(permutation.permute(index));
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new PermutedGeneratorIterator();
+    }
+}
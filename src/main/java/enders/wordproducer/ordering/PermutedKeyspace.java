@@ -0,0 +1,71 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+
+public class PermutedKeyspace extends Keyspace
+{
+    private final Keyspace baseKeyspace;
+    private final FeistelPermutation permutation;
+
+    /**
+     * Constructor of PermutedKeyspace class.
+     * The keyspace consists of the words of the base keyspace in a scattered order;
+     * index {@code i} refers to the word of the base keyspace mapped by the image of {@code i}
+     * under a keyed permutation. Any contiguous range of indices therefore maps to words spread
+     * over the whole base keyspace, without duplicates.
+     * @param baseKeyspace the keyspace whose words are reordered
+     * @param key the key that selects the order
+     */
+    public PermutedKeyspace(Keyspace baseKeyspace, long key)
+    {
+        this.baseKeyspace = baseKeyspace;
+        this.permutation = baseKeyspace.getCount().signum() > 0
+                ? new FeistelPermutation(baseKeyspace.getCount(), key) : null;
+    }
+
+    /**
+     * Accessor method for baseKeyspace.
+     * @return the keyspace whose words are reordered
+     */
+    public Keyspace getBaseKeyspace()
+    {
+        return baseKeyspace;
+    }
+
+    /**
+     * Accessor method for permutation.
+     * @return the permutation that maps indices to the indices of the base keyspace,
+     *         or null if the keyspace is empty
+     */
+    public FeistelPermutation getPermutation()
+    {
+        return permutation;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return baseKeyspace.getLength();
+    }
+
+    @Override
+    public double getAverageWordBytes()
+    {
+        return baseKeyspace.getAverageWordBytes();
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return baseKeyspace.getCount();
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new PermutedGenerator(this, lowerBound, upperBound);
+    }
+}
@@ -0,0 +1,361 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+public class ProbabilityKeyspace extends Keyspace
+{
+    private final List<String> symbols;
+    private final int length;
+    private final int[][][] costs;
+    private final Integer[][][] orders;
+    private final BigInteger[][][] ways;
+    private final BigInteger[] levelOffsets;
+
+    /**
+     * Constructor of ProbabilityKeyspace class. The keyspace covers all words of length
+     * {@code <length>} over the symbols of the model, in approximately descending probability:
+     * the cost of a word is the sum of the costs of its symbols, words are grouped into levels
+     * by cost, and levels come in ascending order of cost. Within a level, words come in
+     * lexicographic order of the ranks of their symbols.
+     * <p>
+     * Since any index can be mapped to its word directly, the keyspace is split into chunks
+     * like any other keyspace. A WordProducerManager accepts it only in ordered mode, where all
+     * producers advance through the most likely words together; the shared engine and lease
+     * mode of WordStreamServer hand out its chunks in index order as well.
+     * @param model the model that defines the cost of each symbol in each context
+     * @param length the number of symbols found in each word
+     */
+    public ProbabilityKeyspace(MarkovModel model, int length)
+    {
+        if (length <= 0)
+        {
+            throw new RuntimeException("Length must be positive!");
+        }
+
+        this.symbols = model.getSymbols();
+        this.length = length;
+        costs = model.createCosts(length);
+        orders = createOrders();
+        ways = createWays(model.getMaxCost() * length);
+
+        BigInteger[] levelCounts = ways[0][0];
+        levelOffsets = new BigInteger[levelCounts.length + 1];
+        levelOffsets[0] = BigInteger.ZERO;
+        for (int level = 0; level < levelCounts.length; level++)
+        {
+            levelOffsets[level + 1] = levelOffsets[level].add(levelCounts[level]);
+        }
+    }
+
+    /**
+     * Sorts the symbols of each context in ascending order of cost.
+     * @return an array where {@code [p][q]} lists the symbol indices of position {@code p}
+     *         in context {@code q} in ascending order of cost
+     */
+    private Integer[][][] createOrders()
+    {
+        Integer[][][] result = new Integer[length][][];
+        for (int position = 0; position < length; position++)
+        {
+            result[position] = new Integer[costs[position].length][];
+            for (int context = 0; context < costs[position].length; context++)
+            {
+                final int[] contextCosts = costs[position][context];
+                Integer[] order = new Integer[symbols.size()];
+                for (int i = 0; i < order.length; i++)
+                {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparingInt((Integer symbol) -> contextCosts[symbol])
+                        .thenComparingInt(symbol -> symbol));
+                result[position][context] = order;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the ways of completing a word for each position, context and total cost.
+     * @param maxTotalCost the largest possible cost of a word
+     * @return an array where {@code [p][q][c]} is the number of ways positions {@code p}
+     *         to the end can be filled with total cost {@code c} when position {@code p} is in
+     *         context {@code q}
+     */
+    private BigInteger[][][] createWays(int maxTotalCost)
+    {
+        BigInteger[][][] result = new BigInteger[length + 1][][];
+        result[length] = new BigInteger[1][maxTotalCost + 1];
+        Arrays.fill(result[length][0], BigInteger.ZERO);
+        result[length][0][0] = BigInteger.ONE;
+
+        for (int position = length - 1; position >= 0; position--)
+        {
+            result[position] = new BigInteger[costs[position].length][];
+            for (int context = 0; context < costs[position].length; context++)
+            {
+                BigInteger[] contextWays = new BigInteger[maxTotalCost + 1];
+                Arrays.fill(contextWays, BigInteger.ZERO);
+                for (int symbol = 0; symbol < symbols.size(); symbol++)
+                {
+                    int cost = costs[position][context][symbol];
+                    BigInteger[] nextWays = result[position + 1][nextContext(position, symbol)];
+                    for (int totalCost = 0; totalCost + cost <= maxTotalCost; totalCost++)
+                    {
+                        if (nextWays[totalCost].signum() != 0)
+                        {
+                            contextWays[totalCost + cost] = contextWays[totalCost + cost].add(nextWays[totalCost]);
+                        }
+                    }
+                }
+                result[position][context] = contextWays;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the context of the position following the given position.
+     * @param position the position of the chosen symbol
+     * @param symbol the chosen symbol
+     * @return the context of the next position
+     */
+    private int nextContext(int position, int symbol)
+    {
+        if (position + 1 >= length || costs[position + 1].length == 1)
+        {
+            return 0;
+        }
+        return symbol;
+    }
+
+    /**
+     * Generates the word mapped by the given index.
+     * @param index the index that refers to the target word
+     * @return the word referred to by the given index
+     */
+    String wordAt(BigInteger index)
+    {
+        return new Cursor(index).word();
+    }
+
+    /**
+     * Creates a cursor placed on the word mapped by the given index.
+     * @param index the index that refers to the first word of the cursor
+     * @return the created cursor
+     */
+    Cursor createCursor(BigInteger index)
+    {
+        return new Cursor(index);
+    }
+
+    /**
+     * Walks the words of the keyspace in index order. Placing the cursor decodes the index
+     * through the ways table once; each following word is derived from the previous one by
+     * advancing the rightmost position that can take its next symbol within the same cost,
+     * and filling the positions after it with their first possible symbols.
+     */
+    final class Cursor
+    {
+        private final int[] ranks;
+        private final int[] contexts;
+        private final int[] remainingCosts;
+        private final StringBuilder stringBuilder;
+        private int level;
+
+        /**
+         * Constructor of Cursor class
+         * @param index the index that refers to the first word of the cursor
+         */
+        private Cursor(BigInteger index)
+        {
+            ranks = new int[length];
+            contexts = new int[length];
+            remainingCosts = new int[length + 1];
+            stringBuilder = new StringBuilder();
+
+            int high = levelOffsets.length - 2;
+            while (level < high)
+            {
+                int middle = (level + high + 1) >>> 1;
+                if (levelOffsets[middle].compareTo(index) <= 0)
+                {
+                    level = middle;
+                }
+                else
+                {
+                    high = middle - 1;
+                }
+            }
+
+            BigInteger remainder = index.subtract(levelOffsets[level]);
+            remainingCosts[0] = level;
+            for (int position = 0; position < length; position++)
+            {
+                int context = contexts[position];
+                Integer[] order = orders[position][context];
+                int chosenRank = -1;
+                for (int rank = 0; rank < order.length; rank++)
+                {
+                    int cost = costs[position][context][order[rank]];
+                    if (cost > remainingCosts[position])
+                    {
+                        break;
+                    }
+
+                    BigInteger count = ways[position + 1][nextContext(position, order[rank])]
+                            [remainingCosts[position] - cost];
+                    if (remainder.compareTo(count) < 0)
+                    {
+                        chosenRank = rank;
+                        break;
+                    }
+                    remainder = remainder.subtract(count);
+                }
+
+                if (chosenRank < 0)
+                {
+                    throw new RuntimeException(String.format("Index is out of the keyspace!: %d", index));
+                }
+                choose(position, chosenRank);
+            }
+        }
+
+        /**
+         * Places the symbol of the given rank at the given position and carries
+         * the remaining cost and the context over to the next position.
+         * @param position the position to be filled
+         * @param rank the rank of the symbol among the symbols of the position in ascending order of cost
+         */
+        private void choose(int position, int rank)
+        {
+            int symbol = orders[position][contexts[position]][rank];
+            ranks[position] = rank;
+            remainingCosts[position + 1] = remainingCosts[position] - costs[position][contexts[position]][symbol];
+            if (position + 1 < length)
+            {
+                contexts[position + 1] = nextContext(position, symbol);
+            }
+        }
+
+        /**
+         * Places the first symbol of rank {@code <startRank>} or above at the given position
+         * for which the positions after it can be completed with the remaining cost.
+         * @param position the position to be filled
+         * @param startRank the least rank to be considered
+         * @return whether such a symbol has been found
+         */
+        private boolean chooseFrom(int position, int startRank)
+        {
+            int context = contexts[position];
+            Integer[] order = orders[position][context];
+            for (int rank = startRank; rank < order.length; rank++)
+            {
+                int cost = costs[position][context][order[rank]];
+                if (cost > remainingCosts[position])
+                {
+                    return false;
+                }
+
+                if (ways[position + 1][nextContext(position, order[rank])][remainingCosts[position] - cost].signum() != 0)
+                {
+                    choose(position, rank);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Moves the cursor to the word mapped by the next index.
+         */
+        void advance()
+        {
+            int position = length - 1;
+            while (position >= 0 && !chooseFrom(position, ranks[position] + 1))
+            {
+                position--;
+            }
+
+            if (position < 0)
+            {
+                do
+                {
+                    level++;
+                }
+                while (level < levelOffsets.length - 1 && levelOffsets[level + 1].equals(levelOffsets[level]));
+
+                if (level == levelOffsets.length - 1)
+                {
+                    throw new RuntimeException("No word is left in the keyspace!");
+                }
+                remainingCosts[0] = level;
+                chooseFrom(0, 0);
+                position = 0;
+            }
+
+            for (position++; position < length; position++)
+            {
+                chooseFrom(position, 0);
+            }
+        }
+
+        /**
+         * Spells the word the cursor is placed on.
+         * @return the word the cursor is placed on
+         */
+        String word()
+        {
+            stringBuilder.setLength(0);
+            for (int position = 0; position < length; position++)
+            {
+                stringBuilder.append(symbols.get(orders[position][contexts[position]][ranks[position]]));
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Returns the number of words whose cost is less than the given cost, which is also
+     * the index of the first word of that cost.
+     * @param cost the cost of a word
+     * @return the index of the first word whose cost is at least {@code <cost>}
+     */
+    public BigInteger getLevelOffset(int cost)
+    {
+        return levelOffsets[Math.min(Math.max(cost, 0), levelOffsets.length - 1)];
+    }
+
+    /**
+     * Accessor method for symbols.
+     * @return the symbol list of the words
+     */
+    @Override
+    public List<String> getSymbols()
+    {
+        return symbols;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return length;
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return levelOffsets[levelOffsets.length - 1];
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new ProbabilityOrderedGenerator(this, lowerBound, upperBound);
+    }
+}
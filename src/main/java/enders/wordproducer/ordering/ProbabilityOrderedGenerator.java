@@ -0,0 +1,62 @@
+package enders.wordproducer.ordering;
+
+import enders.wordproducer.generator.DistributableGenerator;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+
+public class ProbabilityOrderedGenerator extends DistributableGenerator
+{
+    private final ProbabilityKeyspace keyspace;
+
+    /**
+     * Constructor of ProbabilityOrderedGenerator class
+     * @param keyspace the keyspace that maps indices to words in approximately descending probability
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Words mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     */
+    public ProbabilityOrderedGenerator(ProbabilityKeyspace keyspace, BigInteger lowerBound, BigInteger upperBound)
+    {
+        super(keyspace.getSymbols(), lowerBound, upperBound, keyspace.getLength());
+        this.keyspace = keyspace;
+    }
+
+    protected class ProbabilityOrderedGeneratorIterator extends DistributableGeneratorIterator
+    {
+        private ProbabilityKeyspace.Cursor cursor;
+
+        /**
+         * Returns the next word. The cursor is placed on the first word once,
+         * and then advanced word by word.
+         * @return the next word
+         */
+        @Override
+        public String next()
+        {
+            if (cursor == null)
+            {
+                cursor = keyspace.createCursor(currentIndex);
+            }
+            else
+            {
+                cursor.advance();
+            }
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return cursor.word();
+        }
+    }
+
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        return keyspace.wordAt(index);
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new ProbabilityOrderedGeneratorIterator();
+    }
+}
@@ -0,0 +1,42 @@
+package enders.wordproducer.producer;
+
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+
+public class Chunk extends ProducerAssignment
+{
+    private final long number;
+
+    /**
+     * Constructor of Chunk class. A chunk is an assignment that is handed out on demand
+     * instead of being distributed in advance. Chunks are numbered in global index order.
+     * @param number the sequence number of the chunk
+     * @param keyspace the keyspace whose words are to be produced
+     * @param startIndex the lower bound index (inclusive) of the words of the chunk
+     * @param endIndex the upper bound index (inclusive) of the words of the chunk
+     */
+    public Chunk(long number, Keyspace keyspace, BigInteger startIndex, BigInteger endIndex)
+    {
+        super(keyspace, startIndex, endIndex);
+        this.number = number;
+    }
+
+    /**
+     * Accessor method for number.
+     * @return the sequence number of the chunk
+     */
+    public long getNumber()
+    {
+        return number;
+    }
+
+    /**
+     * Returns the number of words of the chunk.
+     * @return the number of words of the chunk
+     */
+    public int getWordCount()
+    {
+        return getEndIndex().subtract(getStartIndex()).intValueExact() + 1;
+    }
+}
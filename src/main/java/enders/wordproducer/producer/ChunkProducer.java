@@ -0,0 +1,62 @@
+package enders.wordproducer.producer;
+
+import enders.wordproducer.distributor.ChunkDistributor;
+import enders.wordproducer.distributor.ChunkSequencer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChunkProducer implements Runnable
+{
+    private final ChunkDistributor chunkDistributor;
+    private final ChunkSequencer chunkSequencer;
+
+    /**
+     * Constructor of ChunkProducer class
+     * @param chunkDistributor the distributor that hands out the chunks to be produced
+     * @param chunkSequencer the sequencer that releases the produced chunks in order
+     */
+    public ChunkProducer(ChunkDistributor chunkDistributor, ChunkSequencer chunkSequencer)
+    {
+        this.chunkDistributor = chunkDistributor;
+        this.chunkSequencer = chunkSequencer;
+    }
+
+    /**
+     * Produces chunks handed out by the distributor until none is left.
+     * A chunk that cannot be produced is marked as failed in the sequencer,
+     * so that the sequencer does not wait for it forever.
+     */
+    @Override
+    public void run()
+    {
+        Chunk chunk;
+        while ((chunk = chunkDistributor.next()) != null)
+        {
+            boolean completed = false;
+            try
+            {
+                chunkSequencer.awaitTurn(chunk.getNumber());
+                List<String> words = new ArrayList<>(chunk.getWordCount());
+                for (String word: chunk.createGenerator())
+                {
+                    words.add(word);
+                }
+                chunkSequencer.complete(chunk.getNumber(), words);
+                completed = true;
+            }
+            catch (InterruptedException e)
+            {
+                // interrupted by WordProducerManager.stop
+                return;
+            }
+            finally
+            {
+                if (!completed)
+                {
+                    chunkSequencer.fail(chunk.getNumber());
+                }
+            }
+        }
+    }
+}
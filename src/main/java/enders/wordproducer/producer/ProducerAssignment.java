@@ -1,12 +1,15 @@
 package enders.wordproducer.producer;
 
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.generator.SymbolKeyspace;
+
 import java.math.BigInteger;
 import java.util.List;
 
 public class ProducerAssignment
 {
-    private final List<String> symbols;
-    private final int length;
+    private final Keyspace keyspace;
     private final BigInteger startIndex;
     private final BigInteger endIndex;
 
@@ -26,19 +29,53 @@ public class ProducerAssignment
      */
     public ProducerAssignment(List<String> symbols, int length, BigInteger startIndex, BigInteger endIndex)
     {
-        this.symbols = symbols;
-        this.length = length;
+        this(new SymbolKeyspace(symbols, length), startIndex, endIndex);
+    }
+
+    /**
+     * Constructor of ProducerAssignment class.
+     * @param keyspace the keyspace whose words are to be produced
+     * @param startIndex the lower bound index (inclusive) for the interval defining the
+     *                   words of the keyspace to be produced
+     * @param endIndex the upper bound index (inclusive)
+     */
+    public ProducerAssignment(Keyspace keyspace, BigInteger startIndex, BigInteger endIndex)
+    {
+        this.keyspace = keyspace;
         this.startIndex = startIndex;
         this.endIndex = endIndex;
     }
 
+    /**
+     * Creates the generator that produces the words of this assignment.
+     * @return the generator that produces the words of this assignment
+     */
+    public DistributableGenerator createGenerator()
+    {
+        return keyspace.createGenerator(startIndex, endIndex);
+    }
+
+    /**
+     * Accessor method for keyspace.
+     * @return the keyspace whose words are to be produced
+     */
+    public Keyspace getKeyspace()
+    {
+        return keyspace;
+    }
+
     /**
      * Accessor method for symbols.
-     * @return the list of symbols to be used for producing words
+     * @return the list of symbols to be used for producing words,
+     *         or null if the keyspace is not defined by a single symbol list
      */
     public List<String> getSymbols()
     {
-        return symbols;
+        if (keyspace instanceof SymbolKeyspace)
+        {
+            return ((SymbolKeyspace) keyspace).getSymbols();
+        }
+        return null;
     }
 
     /**
@@ -47,7 +84,7 @@ public class ProducerAssignment
      */
     public int getLength()
     {
-        return length;
+        return keyspace.getLength();
     }
 
     /**
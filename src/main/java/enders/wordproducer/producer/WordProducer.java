@@ -1,7 +1,7 @@
 package enders.wordproducer.producer;
 
 import enders.wordproducer.generator.DistributableGenerator;
-import enders.wordproducer.generator.NumberSystemGenerator;
+import enders.wordproducer.generator.SymbolKeyspace;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +9,10 @@ import java.util.concurrent.BlockingQueue;
 
 public class WordProducer implements Runnable
 {
+    private static final int MAX_BLOCK_WORD_COUNT = 4096;
+
     private final BlockingQueue<String> queue;
+    private final boolean blockOutput;
     private final List<ProducerAssignment> assignments;
 
     /**
@@ -18,8 +21,21 @@ public class WordProducer implements Runnable
      *              put the produced words
      */
     public WordProducer(BlockingQueue<String> queue)
+    {
+        this(queue, false);
+    }
+
+    /**
+     * Constructor of WordProducer class
+     * @param queue a {@code BlockingQueue<String>} where the producer
+     *              put the produced words
+     * @param blockOutput whether the producer puts blocks of line-feed terminated words
+     *                    into the queue instead of single words
+     */
+    public WordProducer(BlockingQueue<String> queue, boolean blockOutput)
     {
         this.queue = queue;
+        this.blockOutput = blockOutput;
         assignments = new ArrayList<>();
     }
 
@@ -34,27 +50,91 @@ public class WordProducer implements Runnable
 
     /**
      * Performs produce tasks found in assignments list.
+     * The producer stops when it is interrupted while waiting for space in the queue.
      */
     @Override
     public void run()
     {
         for (ProducerAssignment producerAssignment: assignments)
         {
-            DistributableGenerator generator = new NumberSystemGenerator(producerAssignment.getSymbols(),
-                    producerAssignment.getStartIndex(), producerAssignment.getEndIndex(),
-                    producerAssignment.getLength());
+            if (blockOutput)
+            {
+                if (!produceBlocks(producerAssignment))
+                {
+                    return;
+                }
+                continue;
+            }
+
+            DistributableGenerator generator = producerAssignment.createGenerator();
             for (String word: generator)
             {
-                try
+                if (!put(word))
                 {
-                    queue.put(word);
+                    return;
                 }
-                catch (InterruptedException e)
+            }
+        }
+    }
+
+    /**
+     * Produces the words of the given assignment as blocks of line-feed terminated words.
+     * Words of symbol keyspaces are expanded from block templates; words of other keyspaces
+     * are joined into blocks of at most {@code MAX_BLOCK_WORD_COUNT} words.
+     * @param producerAssignment the assignment whose words are to be produced
+     * @return whether all words of the assignment have been put into the queue
+     */
+    private boolean produceBlocks(ProducerAssignment producerAssignment)
+    {
+        if (producerAssignment.getKeyspace() instanceof SymbolKeyspace)
+        {
+            boolean[] interrupted = new boolean[1];
+            ((SymbolKeyspace) producerAssignment.getKeyspace())
+                    .createBlockGenerator(producerAssignment.getStartIndex(), producerAssignment.getEndIndex())
+                    .forEachBlock((block, offset, length, wordCount) ->
+                    {
+                        interrupted[0] = !put(new String(block, offset, length));
+                        return !interrupted[0];
+                    });
+            return !interrupted[0];
+        }
+
+        StringBuilder stringBuilder = new StringBuilder();
+        int wordCount = 0;
+        for (String word: producerAssignment.createGenerator())
+        {
+            stringBuilder.append(word).append('\n');
+            if (++wordCount == MAX_BLOCK_WORD_COUNT)
+            {
+                if (!put(stringBuilder.toString()))
                 {
-                    e.printStackTrace();
+                    return false;
                 }
+                stringBuilder.setLength(0);
+                wordCount = 0;
             }
         }
+
+        return wordCount == 0 || put(stringBuilder.toString());
+    }
+
+    /**
+     * Puts the given element into the queue, waiting for space if necessary.
+     * @param element the word or block to be put into the queue
+     * @return whether the element has been put, false if interrupted while waiting
+     */
+    private boolean put(String element)
+    {
+        try
+        {
+            queue.put(element);
+            return true;
+        }
+        catch (InterruptedException e)
+        {
+            // interrupted by WordProducerManager.stop
+            return false;
+        }
     }
 
     /**
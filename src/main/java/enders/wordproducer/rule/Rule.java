@@ -0,0 +1,317 @@
+package enders.wordproducer.rule;
+
+import java.util.Arrays;
+
+public final class Rule
+{
+    static final byte NOOP = 0;
+    static final byte LOWERCASE = 1;
+    static final byte UPPERCASE = 2;
+    static final byte CAPITALIZE = 3;
+    static final byte INVERT_CAPITALIZE = 4;
+    static final byte TOGGLE_ALL = 5;
+    static final byte TOGGLE_AT = 6;
+    static final byte REVERSE = 7;
+    static final byte DUPLICATE = 8;
+    static final byte APPEND = 9;
+    static final byte PREPEND = 10;
+    static final byte SUBSTITUTE = 11;
+    static final byte DELETE_FIRST = 12;
+    static final byte DELETE_LAST = 13;
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final String source;
+    private final byte[] opcodes;
+    private final char[] firstArguments;
+    private final char[] secondArguments;
+
+    /**
+     * Constructor of Rule class
+     * @param source the rule as written by the user
+     * @param opcodes the compiled functions of the rule, in order
+     * @param firstArguments the first argument of each function (unused ones are 0)
+     * @param secondArguments the second argument of each function (unused ones are 0)
+     */
+    Rule(String source, byte[] opcodes, char[] firstArguments, char[] secondArguments)
+    {
+        this.source = source;
+        this.opcodes = opcodes;
+        this.firstArguments = firstArguments;
+        this.secondArguments = secondArguments;
+    }
+
+    /**
+     * Compiles the given rule. A rule consists of the following functions applied
+     * from left to right; spaces between functions are ignored.
+     * <ul>
+     *     <li>{@code :} does nothing</li>
+     *     <li>{@code l} / {@code u} converts all letters to lowercase / uppercase</li>
+     *     <li>{@code c} / {@code C} capitalizes the first letter and lowercases the rest / the reverse</li>
+     *     <li>{@code t} toggles the case of all letters, {@code TN} toggles the case at position N (0-9, A-Z)</li>
+     *     <li>{@code r} reverses the word, {@code d} duplicates the word</li>
+     *     <li>{@code $X} / {@code ^X} appends / prepends the character X</li>
+     *     <li>{@code sXY} replaces all occurrences of X with Y</li>
+     *     <li>{@code [} / {@code ]} deletes the first / last character</li>
+     * </ul>
+     * @param rule the rule to be compiled
+     * @return the compiled rule
+     */
+    public static Rule compile(String rule)
+    {
+        byte[] opcodes = new byte[rule.length()];
+        char[] firstArguments = new char[rule.length()];
+        char[] secondArguments = new char[rule.length()];
+        int count = 0;
+        int i = 0;
+        while (i < rule.length())
+        {
+            char function = rule.charAt(i++);
+            switch (function)
+            {
+                case ' ':
+                    continue;
+                case ':': opcodes[count] = NOOP; break;
+                case 'l': opcodes[count] = LOWERCASE; break;
+                case 'u': opcodes[count] = UPPERCASE; break;
+                case 'c': opcodes[count] = CAPITALIZE; break;
+                case 'C': opcodes[count] = INVERT_CAPITALIZE; break;
+                case 't': opcodes[count] = TOGGLE_ALL; break;
+                case 'r': opcodes[count] = REVERSE; break;
+                case 'd': opcodes[count] = DUPLICATE; break;
+                case '[': opcodes[count] = DELETE_FIRST; break;
+                case ']': opcodes[count] = DELETE_LAST; break;
+                case 'T':
+                    opcodes[count] = TOGGLE_AT;
+                    firstArguments[count] = (char) toPosition(rule, argument(rule, i++));
+                    break;
+                case '$':
+                    opcodes[count] = APPEND;
+                    firstArguments[count] = argument(rule, i++);
+                    break;
+                case '^':
+                    opcodes[count] = PREPEND;
+                    firstArguments[count] = argument(rule, i++);
+                    break;
+                case 's':
+                    opcodes[count] = SUBSTITUTE;
+                    firstArguments[count] = argument(rule, i++);
+                    secondArguments[count] = argument(rule, i++);
+                    break;
+                default:
+                    throw new RuntimeException(String.format("Unknown rule function '%c' in rule: %s",
+                            function, rule));
+            }
+            count++;
+        }
+
+        return new Rule(rule, Arrays.copyOf(opcodes, count),
+                Arrays.copyOf(firstArguments, count), Arrays.copyOf(secondArguments, count));
+    }
+
+    private static char argument(String rule, int index)
+    {
+        if (index >= rule.length())
+        {
+            throw new RuntimeException("Missing argument at the end of rule: " + rule);
+        }
+        return rule.charAt(index);
+    }
+
+    private static int toPosition(String rule, char position)
+    {
+        if (position >= '0' && position <= '9')
+        {
+            return position - '0';
+        }
+
+        if (position >= 'A' && position <= 'Z')
+        {
+            return position - 'A' + 10;
+        }
+        throw new RuntimeException(String.format("Invalid position '%c' in rule: %s", position, rule));
+    }
+
+    /**
+     * Calculates the buffer capacity needed to apply the rule to a word of the given length.
+     * @param length the number of characters of the word
+     * @return the number of characters the buffer must be able to hold
+     *         at any step of applying the rule
+     */
+    public int requiredCapacity(int length)
+    {
+        long current = length;
+        long maximum = length;
+        for (byte opcode: opcodes)
+        {
+            switch (opcode)
+            {
+                case DUPLICATE: current *= 2; break;
+                case APPEND: case PREPEND: current++; break;
+                case DELETE_FIRST: case DELETE_LAST: current = Math.max(0, current - 1); break;
+                default: break;
+            }
+            maximum = Math.max(maximum, current);
+            if (maximum > MAX_CAPACITY)
+            {
+                throw new RuntimeException(String.format("Rule produces words that are too long for a " +
+                        "word of length %d!: %s", length, source));
+            }
+        }
+        return (int) maximum;
+    }
+
+    /**
+     * Estimates the number of bytes of a word transformed by the rule when encoded as UTF-8.
+     * Duplicating doubles the size, appending and prepending add the size of the character,
+     * and deleting a character is assumed to remove a single byte.
+     * @param wordBytes the number of bytes of the word before the rule is applied
+     * @return the estimated number of bytes of the transformed word
+     */
+    public double estimateBytes(double wordBytes)
+    {
+        double result = wordBytes;
+        for (int i = 0; i < opcodes.length; i++)
+        {
+            switch (opcodes[i])
+            {
+                case DUPLICATE: result *= 2; break;
+                case APPEND: case PREPEND: result += utf8Length(firstArguments[i]); break;
+                case DELETE_FIRST: case DELETE_LAST: result = Math.max(0, result - 1); break;
+                default: break;
+            }
+        }
+        return result;
+    }
+
+    private static int utf8Length(char c)
+    {
+        if (c < 0x80)
+        {
+            return 1;
+        }
+        return c < 0x800 ? 2 : 3;
+    }
+
+    /**
+     * Applies the rule in place on the first {@code <length>} characters of the given buffer.
+     * No object is allocated while applying the rule.
+     * @param buffer the buffer that holds the word. Its capacity must be at least
+     *               {@link #requiredCapacity(int)} of the word length.
+     * @param length the number of characters of the word
+     * @return the number of characters of the transformed word
+     */
+    public int apply(char[] buffer, int length)
+    {
+        for (int i = 0; i < opcodes.length; i++)
+        {
+            switch (opcodes[i])
+            {
+                case LOWERCASE:
+                    for (int j = 0; j < length; j++)
+                    {
+                        buffer[j] = Character.toLowerCase(buffer[j]);
+                    }
+                    break;
+                case UPPERCASE:
+                    for (int j = 0; j < length; j++)
+                    {
+                        buffer[j] = Character.toUpperCase(buffer[j]);
+                    }
+                    break;
+                case CAPITALIZE:
+                case INVERT_CAPITALIZE:
+                    boolean upper = opcodes[i] == CAPITALIZE;
+                    for (int j = 0; j < length; j++)
+                    {
+                        buffer[j] = upper == (j == 0) ? Character.toUpperCase(buffer[j])
+                                : Character.toLowerCase(buffer[j]);
+                    }
+                    break;
+                case TOGGLE_ALL:
+                    for (int j = 0; j < length; j++)
+                    {
+                        buffer[j] = toggle(buffer[j]);
+                    }
+                    break;
+                case TOGGLE_AT:
+                    if (firstArguments[i] < length)
+                    {
+                        buffer[firstArguments[i]] = toggle(buffer[firstArguments[i]]);
+                    }
+                    break;
+                case REVERSE:
+                    for (int j = 0, k = length - 1; j < k; j++, k--)
+                    {
+                        char c = buffer[j];
+                        buffer[j] = buffer[k];
+                        buffer[k] = c;
+                    }
+                    break;
+                case DUPLICATE:
+                    System.arraycopy(buffer, 0, buffer, length, length);
+                    length *= 2;
+                    break;
+                case APPEND:
+                    buffer[length++] = firstArguments[i];
+                    break;
+                case PREPEND:
+                    System.arraycopy(buffer, 0, buffer, 1, length);
+                    buffer[0] = firstArguments[i];
+                    length++;
+                    break;
+                case SUBSTITUTE:
+                    for (int j = 0; j < length; j++)
+                    {
+                        if (buffer[j] == firstArguments[i])
+                        {
+                            buffer[j] = secondArguments[i];
+                        }
+                    }
+                    break;
+                case DELETE_FIRST:
+                    if (length > 0)
+                    {
+                        System.arraycopy(buffer, 1, buffer, 0, --length);
+                    }
+                    break;
+                case DELETE_LAST:
+                    if (length > 0)
+                    {
+                        length--;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return length;
+    }
+
+    private static char toggle(char c)
+    {
+        if (Character.isUpperCase(c))
+        {
+            return Character.toLowerCase(c);
+        }
+        return Character.toUpperCase(c);
+    }
+
+    /**
+     * Applies the rule to the given word.
+     * @param word the word to be transformed
+     * @return the transformed word
+     */
+    public String apply(String word)
+    {
+        char[] buffer = new char[requiredCapacity(word.length())];
+        word.getChars(0, word.length(), buffer, 0);
+        return new String(buffer, 0, apply(buffer, word.length()));
+    }
+
+    @Override
+    public String toString()
+    {
+        return source;
+    }
+}
@@ -0,0 +1,198 @@
+package enders.wordproducer.rule;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+import enders.wordproducer.generator.SymbolKeyspace;
+import enders.wordproducer.util.NumberSystem;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class RuleGenerator extends DistributableGenerator
+{
+    private final Keyspace baseKeyspace;
+    private final RuleSet ruleSet;
+    private final BigInteger ruleCount;
+    private DistributableGenerator baseGenerator;
+    private char[] buffer;
+
+    /**
+     * Constructor of RuleGenerator class
+     * @param baseKeyspace the keyspace whose words are transformed
+     * @param ruleSet the compiled rules to be applied to each word
+     * @param lowerBound the lower bound of the generator.
+     * @param upperBound the upper bound of the generator.
+     *                   Variants mapped by indices between lowerBound and upperBound (both inclusive)
+     *                   are produced by the generator.
+     */
+    public RuleGenerator(Keyspace baseKeyspace, RuleSet ruleSet, BigInteger lowerBound, BigInteger upperBound)
+    {
+        super(Collections.<String>emptyList(), lowerBound, upperBound, baseKeyspace.getLength());
+        this.baseKeyspace = baseKeyspace;
+        this.ruleSet = ruleSet;
+        this.ruleCount = BigInteger.valueOf(ruleSet.size());
+        this.buffer = new char[16];
+    }
+
+    protected class RuleGeneratorIterator extends DistributableGeneratorIterator
+    {
+        private final Iterator<String> baseIterator;
+        private final char[][] symbolChars;
+        private final int[] digits;
+        private boolean baseWordLoaded;
+        private int ruleIndex;
+        private char[] word;
+        private int wordLength;
+        private char[] variant;
+
+        public RuleGeneratorIterator()
+        {
+            BigInteger[] quotientAndRemainder = currentIndex.divideAndRemainder(ruleCount);
+            ruleIndex = quotientAndRemainder[1].intValue();
+            word = new char[16];
+            variant = new char[16];
+
+            if (baseKeyspace instanceof SymbolKeyspace)
+            {
+                SymbolKeyspace symbolKeyspace = (SymbolKeyspace) baseKeyspace;
+                List<String> symbols = symbolKeyspace.getSymbols();
+                symbolChars = new char[symbols.size()][];
+                for (int i = 0; i < symbolChars.length; i++)
+                {
+                    symbolChars[i] = symbols.get(i).toCharArray();
+                }
+
+                digits = new int[digitCount];
+                if (hasNext())
+                {
+                    Integer[] startDigits = NumberSystem.decimalToBaseN(
+                            symbolKeyspace.getStartIndex().add(quotientAndRemainder[0]), symbols.size(), digitCount);
+                    for (int i = 0; i < digitCount; i++)
+                    {
+                        digits[i] = startDigits[i];
+                    }
+                }
+                baseIterator = null;
+            }
+            else
+            {
+                symbolChars = null;
+                digits = null;
+                baseIterator = hasNext() ? baseKeyspace.createGenerator(quotientAndRemainder[0],
+                        upperBound.divide(ruleCount)).iterator() : null;
+            }
+
+            if (hasNext())
+            {
+                loadNextWord();
+            }
+        }
+
+        /**
+         * Loads the next base word into the word buffer, which is reused for all base words
+         * as long as it is large enough. Words of a symbol keyspace are spelled directly from
+         * their symbol indices, without creating a String for each base word.
+         */
+        private void loadNextWord()
+        {
+            if (baseIterator != null)
+            {
+                String baseWord = baseIterator.next();
+                wordLength = 0;
+                ensureWordCapacity(baseWord.length());
+                baseWord.getChars(0, baseWord.length(), word, 0);
+                wordLength = baseWord.length();
+            }
+            else
+            {
+                if (baseWordLoaded)
+                {
+                    int position = digitCount - 1;
+                    while (position >= 0 && ++digits[position] == symbolChars.length)
+                    {
+                        digits[position] = 0;
+                        position--;
+                    }
+                }
+
+                wordLength = 0;
+                for (int digit: digits)
+                {
+                    char[] symbol = symbolChars[digit];
+                    ensureWordCapacity(wordLength + symbol.length);
+                    System.arraycopy(symbol, 0, word, wordLength, symbol.length);
+                    wordLength += symbol.length;
+                }
+            }
+            baseWordLoaded = true;
+
+            int capacity = ruleSet.requiredCapacity(wordLength);
+            if (variant.length < capacity)
+            {
+                variant = new char[capacity];
+            }
+        }
+
+        private void ensureWordCapacity(int capacity)
+        {
+            if (word.length < capacity)
+            {
+                char[] newWord = new char[Math.max(capacity, 2 * word.length)];
+                System.arraycopy(word, 0, newWord, 0, wordLength);
+                word = newWord;
+            }
+        }
+
+        @Override
+        public String next()
+        {
+            if (ruleIndex == ruleSet.size())
+            {
+                loadNextWord();
+                ruleIndex = 0;
+            }
+
+            System.arraycopy(word, 0, variant, 0, wordLength);
+            int length = ruleSet.get(ruleIndex).apply(variant, wordLength);
+            ruleIndex++;
+            currentIndex = currentIndex.add(BigInteger.ONE);
+            return new String(variant, 0, length);
+        }
+    }
+
+    /**
+     * Generates the variant mapped by the given index. The base word is taken from a generator
+     * over the whole base keyspace, which is created once, and the rule is applied in a reused buffer.
+     * @param index the index that refers to the target variant.
+     * @return the variant referred to by the given index.
+     */
+    @Override
+    protected String generateWord(BigInteger index)
+    {
+        if (baseGenerator == null)
+        {
+            baseGenerator = baseKeyspace.createGenerator(BigInteger.ZERO,
+                    baseKeyspace.getCount().subtract(BigInteger.ONE));
+        }
+
+        BigInteger[] quotientAndRemainder = index.divideAndRemainder(ruleCount);
+        String baseWord = baseGenerator.wordAt(quotientAndRemainder[0]);
+        int capacity = ruleSet.requiredCapacity(baseWord.length());
+        if (buffer.length < capacity)
+        {
+            buffer = new char[capacity];
+        }
+
+        baseWord.getChars(0, baseWord.length(), buffer, 0);
+        int length = ruleSet.get(quotientAndRemainder[1].intValue()).apply(buffer, baseWord.length());
+        return new String(buffer, 0, length);
+    }
+
+    @Override
+    public Iterator<String> iterator()
+    {
+        return new RuleGeneratorIterator();
+    }
+}
@@ -0,0 +1,68 @@
+package enders.wordproducer.rule;
+
+import enders.wordproducer.generator.DistributableGenerator;
+import enders.wordproducer.generator.Keyspace;
+
+import java.math.BigInteger;
+
+public class RuleKeyspace extends Keyspace
+{
+    private final Keyspace baseKeyspace;
+    private final RuleSet ruleSet;
+
+    /**
+     * Constructor of RuleKeyspace class.
+     * The keyspace consists of every rule applied to every word of the base keyspace;
+     * index {@code i} refers to rule {@code i mod r} applied to the base word {@code i / r},
+     * where {@code r} is the number of rules.
+     * @param baseKeyspace the keyspace whose words are transformed
+     * @param ruleSet the compiled rules to be applied to each word
+     */
+    public RuleKeyspace(Keyspace baseKeyspace, RuleSet ruleSet)
+    {
+        this.baseKeyspace = baseKeyspace;
+        this.ruleSet = ruleSet;
+    }
+
+    /**
+     * Accessor method for baseKeyspace.
+     * @return the keyspace whose words are transformed
+     */
+    public Keyspace getBaseKeyspace()
+    {
+        return baseKeyspace;
+    }
+
+    /**
+     * Accessor method for ruleSet.
+     * @return the compiled rules applied to each word
+     */
+    public RuleSet getRuleSet()
+    {
+        return ruleSet;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return baseKeyspace.getLength();
+    }
+
+    @Override
+    public double getAverageWordBytes()
+    {
+        return ruleSet.estimateBytes(baseKeyspace.getAverageWordBytes());
+    }
+
+    @Override
+    public BigInteger getCount()
+    {
+        return baseKeyspace.getCount().multiply(BigInteger.valueOf(ruleSet.size()));
+    }
+
+    @Override
+    public DistributableGenerator createGenerator(BigInteger lowerBound, BigInteger upperBound)
+    {
+        return new RuleGenerator(baseKeyspace, ruleSet, lowerBound, upperBound);
+    }
+}
@@ -0,0 +1,91 @@
+package enders.wordproducer.rule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public final class RuleSet
+{
+    private final List<Rule> rules;
+
+    /**
+     * Constructor of RuleSet class
+     * @param rules the compiled rules
+     */
+    private RuleSet(List<Rule> rules)
+    {
+        this.rules = Collections.unmodifiableList(rules);
+    }
+
+    /**
+     * Compiles the given rules once so that they can be applied to
+     * produced words without parsing them again. See {@link Rule#compile(String)}
+     * for the rule syntax.
+     * @param rules the rules to be compiled, each of which produces one variant of a word
+     * @return the compiled RuleSet
+     */
+    public static RuleSet compile(List<String> rules)
+    {
+        if (rules.size() == 0)
+        {
+            throw new RuntimeException("Rules list cannot be empty!");
+        }
+
+        List<Rule> compiledRules = new ArrayList<>();
+        for (String rule: rules)
+        {
+            compiledRules.add(Rule.compile(rule));
+        }
+        return new RuleSet(compiledRules);
+    }
+
+    /**
+     * Returns the compiled rule found at the given index.
+     * @param index the index of the rule
+     * @return the compiled rule
+     */
+    public Rule get(int index)
+    {
+        return rules.get(index);
+    }
+
+    /**
+     * Returns the number of rules, which is also the number of variants produced for each word.
+     * @return the number of rules
+     */
+    public int size()
+    {
+        return rules.size();
+    }
+
+    /**
+     * Estimates the average number of bytes of a variant when encoded as UTF-8,
+     * given the average number of bytes of the base words.
+     * @param wordBytes the average number of bytes of a base word
+     * @return the estimated average number of bytes of a variant
+     */
+    public double estimateBytes(double wordBytes)
+    {
+        double result = 0;
+        for (Rule rule: rules)
+        {
+            result += rule.estimateBytes(wordBytes);
+        }
+        return result / rules.size();
+    }
+
+    /**
+     * Calculates the buffer capacity needed to apply any of the rules to a word of the given length.
+     * @param length the number of characters of the word
+     * @return the number of characters the buffer must be able to hold
+     */
+    public int requiredCapacity(int length)
+    {
+        int result = length;
+        for (Rule rule: rules)
+        {
+            result = Math.max(result, rule.requiredCapacity(length));
+        }
+        return result;
+    }
+}
@@ -1,7 +1,11 @@
 package enders.wordproducer.util;
 
+import enders.wordproducer.generator.Keyspace;
+
 import java.math.BigInteger;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 
@@ -40,4 +44,78 @@ public class Counter
     {
         return BigInteger.valueOf(symbolMap.get(length).size()).pow(length);
     }
+
+    /**
+     * Calculates and returns the count of all words found in the given keyspaces.
+     * @param keyspaces the keyspaces whose words are to be counted
+     * @return the count of all words found in the given keyspaces
+     */
+    public static BigInteger countWords(List<Keyspace> keyspaces)
+    {
+        BigInteger result = BigInteger.ZERO;
+        for (Keyspace keyspace: keyspaces)
+        {
+            result = result.add(keyspace.getCount());
+        }
+        return result;
+    }
+
+    /**
+     * Calculates and returns the count of the words that may be generated using
+     * {@code <symbolMap>} but not using {@code <previousSymbolMap>}, i.e. the words of new
+     * lengths and the words containing at least one new symbol. By inclusion-exclusion,
+     * for each length this is the count of all words minus the count of the words made up of
+     * previous symbols only.
+     * @param previousSymbolMap the symbol map of the previous run
+     * @param symbolMap the extended symbol map
+     * @return the count of the words that have not been generated by the previous run
+     */
+    public static BigInteger countDeltaWords(HashMap<Integer, List<String>> previousSymbolMap,
+                                             HashMap<Integer, List<String>> symbolMap)
+    {
+        BigInteger result = BigInteger.ZERO;
+        for (int length: symbolMap.keySet())
+        {
+            result = result.add(countDeltaWords(previousSymbolMap, symbolMap, length));
+        }
+        return result;
+    }
+
+    /**
+     * Calculates and returns the count of the words of length {@code <length>} that may be
+     * generated using {@code <symbolMap>} but not using {@code <previousSymbolMap>}.
+     * @param previousSymbolMap the symbol map of the previous run
+     * @param symbolMap the extended symbol map
+     * @param length the length of the words (must exist in symbolMap)
+     * @return the count of the words of the given length that have not been generated by the previous run
+     */
+    public static BigInteger countDeltaWords(HashMap<Integer, List<String>> previousSymbolMap,
+                                             HashMap<Integer, List<String>> symbolMap, int length)
+    {
+        return countDeltaWords(previousSymbolMap.getOrDefault(length, Collections.<String>emptyList()),
+                symbolMap.get(length), length);
+    }
+
+    /**
+     * Calculates and returns the count of the words of length {@code <length>} that may be
+     * generated using {@code <symbols>} but not using {@code <previousSymbols>}.
+     * @param previousSymbols the symbol list of the previous run for the same length
+     * @param symbols the extended symbol list
+     * @param length the length of the words
+     * @return the count of the words of the given length that have not been generated by the previous run
+     */
+    public static BigInteger countDeltaWords(List<String> previousSymbols, List<String> symbols, int length)
+    {
+        HashSet<String> previousSymbolSet = new HashSet<>(previousSymbols);
+        int keptSymbolCount = 0;
+        for (String symbol: symbols)
+        {
+            if (previousSymbolSet.contains(symbol))
+            {
+                keptSymbolCount++;
+            }
+        }
+        return BigInteger.valueOf(symbols.size()).pow(length)
+                .subtract(BigInteger.valueOf(keptSymbolCount).pow(length));
+    }
 }
@@ -0,0 +1,67 @@
+package enders.wordproducer.util;
+
+import java.util.List;
+
+public class SymbolTokenizer
+{
+    /**
+     * Splits the given word into exactly {@code <length>} symbols of the given symbol list.
+     * Since symbols may consist of multiple letters, a word might be split in different ways;
+     * the first split found by trying the symbols in list order is returned.
+     * @param word the word to be split
+     * @param symbols the symbol list that defines the word
+     * @param length the number of symbols the word must consist of
+     * @return an array consisting of the indices of the symbols that make up the word,
+     *         or null if the word cannot be made up of {@code <length>} symbols of the list
+     */
+    public static int[] tokenize(String word, List<String> symbols, int length)
+    {
+        int[] result = new int[length];
+        boolean[][] failed = new boolean[word.length() + 1][length + 1];
+        if (tokenize(word, symbols, 0, 0, result, failed))
+        {
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Recursively splits the remaining part of the word starting from the given position.
+     * @param word the word to be split
+     * @param symbols the symbol list that defines the word
+     * @param position the position in the word where the next symbol starts
+     * @param symbolCount the number of symbols found so far
+     * @param result the array where the indices of found symbols are put
+     * @param failed memo of position-symbolCount pairs that are known not to lead to a split
+     * @return whether the remaining part of the word could be split
+     */
+    private static boolean tokenize(String word, List<String> symbols, int position, int symbolCount,
+                                    int[] result, boolean[][] failed)
+    {
+        if (symbolCount == result.length)
+        {
+            return position == word.length();
+        }
+
+        if (failed[position][symbolCount])
+        {
+            return false;
+        }
+
+        for (int i = 0; i < symbols.size(); i++)
+        {
+            String symbol = symbols.get(i);
+            if (!symbol.isEmpty() && word.startsWith(symbol, position))
+            {
+                result[symbolCount] = i;
+                if (tokenize(word, symbols, position + symbol.length(), symbolCount + 1, result, failed))
+                {
+                    return true;
+                }
+            }
+        }
+
+        failed[position][symbolCount] = true;
+        return false;
+    }
+}